@@ -0,0 +1,281 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Accumulates where a grid is active over a long run: for each square block of cells, how many
+ * cell-generations were alive and how many cells changed state.
+ * Attach one to a grid with Grid.setActivityMap() and every step feeds it the old and new rows.
+ * Counting works on whole words: each word is reduced to eight per-byte population counts with
+ * a few shifts and masks, and those are summed into 16-bit lanes of a long across a band of rows,
+ * so the per-block counters are only touched once per band instead of once per cell.
+ */
+public class ActivityMap {
+    public static final int MIN_BLOCK_SIZE = 8;
+    public static final int MAX_BLOCK_SIZE = 64;
+
+    /**
+     * What a count or heatmap measures.
+     */
+    public enum Measure {
+        LIVE,    // cell-generations spent alive
+        CHANGES  // births plus deaths
+    }
+
+    private static final long BYTE_LANES = 0x00FF00FF00FF00FFL;
+
+    private final int height;
+    private final int width;
+    private final int wordsPerRow;
+    private final int blockSize;
+    private final int blockRows;
+    private final int blockCols;
+    private final long[] liveCounts;   // per block, row-major
+    private final long[] changeCounts; // per block, row-major
+    private final long[] liveLanes;    // per word: even bytes' sums, then odd bytes' sums, for the current band
+    private final long[] changeLanes;
+    private long generations;
+
+    /**
+     * Creates an empty activity map for grids of one size.
+     *
+     * @param height the height of the grid
+     * @param width the width of the grid
+     * @param blockSize the side of a block in cells: a power of two from MIN_BLOCK_SIZE to MAX_BLOCK_SIZE
+     */
+    public ActivityMap(int height, int width, int blockSize) {
+        if (blockSize < MIN_BLOCK_SIZE || blockSize > MAX_BLOCK_SIZE || Integer.bitCount(blockSize) != 1) {
+            throw new IllegalArgumentException("Block size must be a power of two from "
+                    + MIN_BLOCK_SIZE + " to " + MAX_BLOCK_SIZE + ", got " + blockSize);
+        }
+        this.height = height;
+        this.width = width;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.blockSize = blockSize;
+        this.blockRows = (height + blockSize - 1) / blockSize;
+        this.blockCols = (width + blockSize - 1) / blockSize;
+        this.liveCounts = new long[blockRows * blockCols];
+        this.changeCounts = new long[blockRows * blockCols];
+        this.liveLanes = new long[2 * wordsPerRow];
+        this.changeLanes = new long[2 * wordsPerRow];
+    }
+
+    /**
+     * Gets the height of the grids this map counts.
+     *
+     * @return the height in cells
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the width of the grids this map counts.
+     *
+     * @return the width in cells
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the side of a block; the last row and column of blocks may be cut off by the grid's edge.
+     *
+     * @return the block size in cells
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Gets the number of block rows.
+     *
+     * @return the number of blocks down the grid
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * Gets the number of block columns.
+     *
+     * @return the number of blocks across the grid
+     */
+    public int getBlockCols() {
+        return blockCols;
+    }
+
+    /**
+     * Gets the number of generations counted since the map was created or reset.
+     *
+     * @return the generation count
+     */
+    public long getGenerations() {
+        return generations;
+    }
+
+    /**
+     * Gets one block's count.
+     *
+     * @param measure what to count
+     * @param blockRow the block row index
+     * @param blockCol the block column index
+     * @return the block's total so far
+     */
+    public long getCount(Measure measure, int blockRow, int blockCol) {
+        return counts(measure)[blockRow * blockCols + blockCol];
+    }
+
+    /**
+     * Copies out every block's count.
+     *
+     * @param measure what to count
+     * @return getBlockRows() * getBlockCols() totals, row-major
+     */
+    public long[] getCounts(Measure measure) {
+        return counts(measure).clone();
+    }
+
+    private long[] counts(Measure measure) {
+        return measure == Measure.LIVE ? liveCounts : changeCounts;
+    }
+
+    /**
+     * Sets every count back to zero.
+     */
+    public void reset() {
+        Arrays.fill(liveCounts, 0L);
+        Arrays.fill(changeCounts, 0L);
+        generations = 0;
+    }
+
+    /**
+     * Estimates the heap memory this map uses.
+     *
+     * @return the footprint in bytes
+     */
+    public long getMemoryFootprint() {
+        return MemoryLayout.object(4 * MemoryLayout.REFERENCE_BYTES + 6 * 4 + 8)
+                + 2 * MemoryLayout.array(liveCounts.length, 8)
+                + 2 * MemoryLayout.array(liveLanes.length, 8);
+    }
+
+    // ============================ Counting ============================
+
+    /**
+     * Counts one step given as rows of words, laid out like the grid's own rows.
+     *
+     * @param before the rows before the step
+     * @param after the rows after the step
+     */
+    public void record(long[][] before, long[][] after) {
+        for (int row = 0; row < height; row++) {
+            addRow(before[row], 0, after[row], 0);
+            endRow(row);
+        }
+        generations++;
+    }
+
+    /**
+     * Counts one step given as all the words of the grid, getWordsPerRow() words per row as in Grid.copyWords.
+     *
+     * @param before the words before the step
+     * @param after the words after the step
+     */
+    public void record(long[] before, long[] after) {
+        for (int row = 0; row < height; row++) {
+            addRow(before, row * wordsPerRow, after, row * wordsPerRow);
+            endRow(row);
+        }
+        generations++;
+    }
+
+    private void addRow(long[] before, int beforeOffset, long[] after, int afterOffset) {
+        for (int word = 0; word < wordsPerRow; word++) {
+            long now = after[afterOffset + word];
+            long changed = now ^ before[beforeOffset + word];
+            if (now != 0) {
+                long bytes = byteCounts(now);
+                liveLanes[2 * word] += bytes & BYTE_LANES;
+                liveLanes[2 * word + 1] += bytes >>> 8 & BYTE_LANES;
+            }
+            if (changed != 0) {
+                long bytes = byteCounts(changed);
+                changeLanes[2 * word] += bytes & BYTE_LANES;
+                changeLanes[2 * word + 1] += bytes >>> 8 & BYTE_LANES;
+            }
+        }
+    }
+
+    /**
+     * Moves the lane sums into the block counters at the end of each band of blockSize rows.
+     * A lane holds at most 8 * MAX_BLOCK_SIZE, so 16 bits never overflow within a band.
+     */
+    private void endRow(int row) {
+        if ((row + 1) % blockSize != 0 && row != height - 1) {
+            return;
+        }
+        int base = row / blockSize * blockCols;
+        flush(liveLanes, liveCounts, base);
+        flush(changeLanes, changeCounts, base);
+    }
+
+    private void flush(long[] lanes, long[] counts, int base) {
+        for (int word = 0; word < wordsPerRow; word++) {
+            long even = lanes[2 * word];
+            long odd = lanes[2 * word + 1];
+            if ((even | odd) == 0) {
+                continue;
+            }
+            lanes[2 * word] = 0;
+            lanes[2 * word + 1] = 0;
+            for (int b = 0; b < 8; b++) {
+                int col = (word << 6) + (b << 3);
+                if (col >= width) {
+                    break;
+                }
+                long lane = (b & 1) == 0 ? even : odd;
+                counts[base + col / blockSize] += lane >>> ((b >>> 1) << 4) & 0xFFFF;
+            }
+        }
+    }
+
+    /**
+     * Counts the set bits of each byte of a word, leaving each count in its own byte.
+     */
+    private static long byteCounts(long bits) {
+        bits -= bits >>> 1 & 0x5555555555555555L;
+        bits = (bits & 0x3333333333333333L) + (bits >>> 2 & 0x3333333333333333L);
+        return bits + (bits >>> 4) & 0x0F0F0F0F0F0F0F0FL;
+    }
+
+    // ============================ Heatmap ============================
+
+    /**
+     * Draws the counts as a heatmap with one pixel per block.
+     * Blocks with no activity are transparent; the rest run from blue for the least active to red for the
+     * most, on a logarithmic scale so that a few busy spots do not wash out everything else.
+     *
+     * @param measure what to draw
+     * @return a getBlockCols() x getBlockRows() image
+     */
+    public BufferedImage toImage(Measure measure) {
+        long[] counts = counts(measure);
+        long max = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+        }
+        double scale = max == 0 ? 0 : 1 / Math.log1p(max);
+
+        BufferedImage image = new BufferedImage(blockCols, blockRows, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                float heat = (float) (Math.log1p(counts[i]) * scale);
+                pixels[i] = Color.HSBtoRGB(0.66f * (1 - heat), 1f, 1f);
+            }
+        }
+        image.setRGB(0, 0, blockCols, blockRows, pixels, 0, blockCols);
+        return image;
+    }
+}
@@ -0,0 +1,421 @@
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+
+/**
+ * Simulates 64 independent Game of Life boards at once.
+ * Each long holds the same cell position across all 64 boards (bit b belongs to board b),
+ * so a single network of bitwise adders steps every board together.
+ * Boards run Conway's rules unless another Life-like rule is set.
+ * Cells outside the boards are treated as dead, like in Grid.
+ */
+public class BitSlicedSimulator {
+    public static final int BOARDS = 64;
+
+    private final int height;
+    private final int width;
+    private final int stride; // row length including one dead border column on each side
+    private final int[] neighborOffsets;
+    private long[] cells;
+    private long[] next;
+    private LifeRule rule = LifeRule.conway();
+    private boolean conway = true;
+    private int[] ruleCounts = new int[0];     // neighbor counts that can make a cell alive under the rule
+    private long[] bornMasks = new long[0];    // per entry of ruleCounts: all ones if dead cells are born on it
+    private long[] surviveMasks = new long[0]; // per entry of ruleCounts: all ones if alive cells survive on it
+
+    /**
+     * Creates 64 empty boards of the given size.
+     *
+     * @param height the height of each board
+     * @param width the width of each board
+     */
+    public BitSlicedSimulator(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.stride = width + 2;
+        this.cells = new long[(height + 2) * stride];
+        this.next = new long[cells.length];
+        this.neighborOffsets = new int[] {
+                -stride - 1, -stride, -stride + 1,
+                -1, 1,
+                stride - 1, stride, stride + 1
+        };
+    }
+
+    /**
+     * Gets the height (number of rows) of each board.
+     *
+     * @return the height of the boards
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the width (number of columns) of each board.
+     *
+     * @return the width of the boards
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Maps a board position to its index in the padded cell array.
+     */
+    private int index(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    /**
+     * Checks if a position is within the board boundaries.
+     */
+    private boolean isValidLocation(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+    /**
+     * Checks if a cell is alive on one of the boards.
+     *
+     * @param board the board index (0-63)
+     * @param row the row index
+     * @param col the column index
+     * @return true if the cell is alive, false if dead or outside the board
+     */
+    public boolean isAlive(int board, int row, int col) {
+        return isValidLocation(row, col) && (cells[index(row, col)] >>> board & 1L) != 0;
+    }
+
+    /**
+     * Sets the state of a cell on one of the boards.
+     * Does nothing if the position is outside the board.
+     *
+     * @param board the board index (0-63)
+     * @param row the row index
+     * @param col the column index
+     * @param alive true to make the cell alive, false to make it dead
+     */
+    public void setCellState(int board, int row, int col, boolean alive) {
+        if (isValidLocation(row, col)) {
+            long bit = 1L << board;
+            int i = index(row, col);
+            cells[i] = alive ? cells[i] | bit : cells[i] & ~bit;
+        }
+    }
+
+    /**
+     * Gets the rule every board runs.
+     *
+     * @return the rule
+     */
+    public LifeRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Sets the rule every board runs from the next generation on.
+     * Conway's Life keeps its own faster adder; other rules count neighbors exactly.
+     *
+     * @param rule the Life-like rule
+     */
+    public void setRule(LifeRule rule) {
+        this.rule = rule;
+        this.conway = rule.equals(LifeRule.conway());
+        int used = 0;
+        for (int count = 0; count <= 8; count++) {
+            if (rule.isBirth(count) || rule.isSurvival(count)) {
+                used++;
+            }
+        }
+        ruleCounts = new int[used];
+        bornMasks = new long[used];
+        surviveMasks = new long[used];
+        int k = 0;
+        for (int count = 0; count <= 8; count++) {
+            if (rule.isBirth(count) || rule.isSurvival(count)) {
+                ruleCounts[k] = count;
+                bornMasks[k] = rule.isBirth(count) ? -1L : 0L;
+                surviveMasks[k] = rule.isSurvival(count) ? -1L : 0L;
+                k++;
+            }
+        }
+    }
+
+    /**
+     * Estimates the heap memory the simulator uses: its two padded cell arrays and rule tables.
+     * Divide by BOARDS for the cost of one board.
+     *
+     * @return the footprint in bytes
+     */
+    public long getMemoryFootprint() {
+        return MemoryLayout.object(3 * 4 + 7 * MemoryLayout.REFERENCE_BYTES + 1)
+                + 2 * MemoryLayout.array(cells.length, 8)
+                + MemoryLayout.array(neighborOffsets.length, 4)
+                + MemoryLayout.object(2 * 4)
+                + MemoryLayout.array(ruleCounts.length, 4)
+                + 2 * MemoryLayout.array(bornMasks.length, 8);
+    }
+
+    /**
+     * Clears all 64 boards.
+     */
+    public void clear() {
+        Arrays.fill(cells, 0L);
+    }
+
+    /**
+     * Randomizes every board from its own seed.
+     * Board b is filled from seeds[b], so a board's soup does not depend on the other 63.
+     *
+     * @param seeds 64 seeds, one per board
+     * @param prob the probability (0.0 to 1.0) that each cell will be alive
+     */
+    public void randomize(long[] seeds, double prob) {
+        if (seeds.length != BOARDS) {
+            throw new IllegalArgumentException("Expected " + BOARDS + " seeds, got " + seeds.length);
+        }
+        clear();
+        for (int board = 0; board < BOARDS; board++) {
+            SplittableRandom rand = new SplittableRandom(seeds[board]);
+            long bit = 1L << board;
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    if (rand.nextDouble() <= prob) {
+                        cells[index(row, col)] |= bit;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Places a pattern on one of the boards, like Pattern.placeOnGrid.
+     * Only cells within the board boundaries will be placed.
+     *
+     * @param board the board index (0-63)
+     * @param pattern the pattern to place
+     * @param startRow the top-left row position to start placing
+     * @param startCol the top-left column position to start placing
+     */
+    public void placePattern(int board, Pattern pattern, int startRow, int startCol) {
+        boolean[][] shape = pattern.getPattern();
+        int width = pattern.getWidth();
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < width; col++) {
+                setCellState(board, startRow + row, startCol + col, col < shape[row].length && shape[row][col]);
+            }
+        }
+    }
+
+    /**
+     * Places one pattern per board, each at its own position.
+     * A null pattern leaves that board untouched.
+     *
+     * @param patterns 64 patterns, one per board
+     * @param startRows the top-left row of each placement
+     * @param startCols the top-left column of each placement
+     */
+    public void placePatterns(Pattern[] patterns, int[] startRows, int[] startCols) {
+        if (patterns.length != BOARDS || startRows.length != BOARDS || startCols.length != BOARDS) {
+            throw new IllegalArgumentException("Expected " + BOARDS + " placements");
+        }
+        for (int board = 0; board < BOARDS; board++) {
+            if (patterns[board] != null) {
+                placePattern(board, patterns[board], startRows[board], startCols[board]);
+            }
+        }
+    }
+
+    /**
+     * Copies a Grid onto one of the boards.
+     * The grid must have the same dimensions as the boards.
+     *
+     * @param board the board index (0-63)
+     * @param grid the grid to copy
+     */
+    public void loadBoard(int board, Grid grid) {
+        if (grid.getHeight() != height || grid.getWidth() != width) {
+            throw new IllegalArgumentException("Grid size does not match the boards");
+        }
+        long clearBit = ~(1L << board);
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] &= clearBit;
+        }
+        PrimitiveIterator.OfLong live = grid.liveCellIterator();
+        while (live.hasNext()) {
+            long cell = live.nextLong();
+            cells[index(Grid.cellRow(cell), Grid.cellCol(cell))] |= 1L << board;
+        }
+    }
+
+    /**
+     * Copies one of the boards into a new Grid.
+     *
+     * @param board the board index (0-63)
+     * @return a grid holding the board's current state
+     */
+    public Grid getBoard(int board) {
+        Grid grid = new Grid(height, width);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (isAlive(board, row, col)) {
+                    grid.setCellState(row, col, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Advances all 64 boards to the next generation using Conway's rules.
+     * The 8 neighbors of a cell are summed in a saturating 3-bit counter (s2 means 4 or more),
+     * then a cell lives on a count of 3, or on a count of 2 if it was already alive.
+     */
+    public void nextGeneration() {
+        if (!conway) {
+            nextGenerationByRule();
+            return;
+        }
+        for (int row = 1; row <= height; row++) {
+            int end = row * stride + width;
+            for (int i = row * stride + 1; i <= end; i++) {
+                long s0 = 0;
+                long s1 = 0;
+                long s2 = 0;
+                for (int offset : neighborOffsets) {
+                    long n = cells[i + offset];
+                    long carry0 = s0 & n;
+                    s0 ^= n;
+                    long carry1 = s1 & carry0;
+                    s1 ^= carry0;
+                    s2 |= carry1;
+                }
+                next[i] = ~s2 & s1 & (s0 | cells[i]);
+            }
+        }
+
+        long[] swap = cells;
+        cells = next;
+        next = swap;
+    }
+
+    /**
+     * Advances all 64 boards under a general Life-like rule.
+     * The neighbors are summed in an exact 4-bit counter (s3 is only set for a count of 8);
+     * then for each count the rule uses, the cells with exactly that count are born or survive.
+     */
+    private void nextGenerationByRule() {
+        for (int row = 1; row <= height; row++) {
+            int end = row * stride + width;
+            for (int i = row * stride + 1; i <= end; i++) {
+                long s0 = 0;
+                long s1 = 0;
+                long s2 = 0;
+                long s3 = 0;
+                for (int offset : neighborOffsets) {
+                    long n = cells[i + offset];
+                    long carry0 = s0 & n;
+                    s0 ^= n;
+                    long carry1 = s1 & carry0;
+                    s1 ^= carry0;
+                    long carry2 = s2 & carry1;
+                    s2 ^= carry1;
+                    s3 |= carry2;
+                }
+                long alive = cells[i];
+                long result = 0;
+                for (int k = 0; k < ruleCounts.length; k++) {
+                    int count = ruleCounts[k];
+                    long exact = ((count & 1) != 0 ? s0 : ~s0)
+                            & ((count & 2) != 0 ? s1 : ~s1)
+                            & ((count & 4) != 0 ? s2 : ~s2)
+                            & ((count & 8) != 0 ? s3 : ~s3);
+                    result |= exact & (bornMasks[k] & ~alive | surviveMasks[k] & alive);
+                }
+                next[i] = result;
+            }
+        }
+
+        long[] swap = cells;
+        cells = next;
+        next = swap;
+    }
+
+    /**
+     * Advances all 64 boards by several generations.
+     *
+     * @param generations the number of generations to run
+     */
+    public void nextGenerations(int generations) {
+        for (int i = 0; i < generations; i++) {
+            nextGeneration();
+        }
+    }
+
+    /**
+     * Returns a mask of the boards that still have at least one live cell.
+     *
+     * @return bit b is set if board b is not empty
+     */
+    public long liveBoards() {
+        long mask = 0;
+        for (long cell : cells) {
+            mask |= cell;
+        }
+        return mask;
+    }
+
+    /**
+     * Counts the live cells on one of the boards.
+     *
+     * @param board the board index (0-63)
+     * @return the population of the board
+     */
+    public int getPopulation(int board) {
+        int count = 0;
+        for (long cell : cells) {
+            count += (int) (cell >>> board & 1L);
+        }
+        return count;
+    }
+
+    /**
+     * Hashes every board's live cells in a single pass, for spotting repeated states.
+     * Equal boards always get equal hashes; different boards almost never do.
+     *
+     * @return a hash of each board, indexed by board
+     */
+    public long[] getHashes() {
+        long[] hashes = new long[BOARDS];
+        for (int i = 0; i < cells.length; i++) {
+            long cell = cells[i];
+            if (cell != 0) {
+                long mixed = (i + 1) * 0x9E3779B97F4A7C15L;
+                mixed = (mixed ^ mixed >>> 31) * 0xBF58476D1CE4E5B9L;
+                mixed ^= mixed >>> 29;
+                while (cell != 0) {
+                    hashes[Long.numberOfTrailingZeros(cell)] += mixed;
+                    cell &= cell - 1;
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Counts the live cells on every board in a single pass.
+     *
+     * @return the population of each board, indexed by board
+     */
+    public int[] getPopulations() {
+        int[] populations = new int[BOARDS];
+        for (long cell : cells) {
+            while (cell != 0) {
+                populations[Long.numberOfTrailingZeros(cell)]++;
+                cell &= cell - 1;
+            }
+        }
+        return populations;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * How a pattern's cells are combined with the cells already on a grid when it is blitted.
+ * Only cells inside the pattern's bounding box are affected.
+ */
+public enum BlitMode {
+    /** Live pattern cells become alive; everything else is left as it was. */
+    OR,
+    /** Live pattern cells flip the grid cell under them. */
+    XOR,
+    /** Live pattern cells become dead, erasing the pattern's shape from the grid. */
+    AND_NOT,
+    /**
+     * The whole bounding box is overwritten, dead pattern cells included (like Pattern.placeOnGrid).
+     * Cells past the end of a row shorter than the pattern's width count as dead, so they are cleared too.
+     */
+    REPLACE
+}
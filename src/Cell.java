@@ -54,6 +54,6 @@ public class Cell {
      */
     @Override
     public String toString() {
-        return alive ? "■" : "□";
+        return isAlive() ? "■" : "□";
     }
 }
\ No newline at end of file
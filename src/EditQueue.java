@@ -0,0 +1,115 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free queue of edits waiting to be applied to a grid.
+ * Any number of threads (the mouse handler, pattern insertion, remote clients) can submit edits
+ * while the simulation runs. The thread that owns the grid calls applyTo() between generations,
+ * which takes every pending edit in one atomic swap and applies them in submission order,
+ * so a generation never sees half of a batch and the step loop never takes a lock.
+ */
+public class EditQueue {
+
+    /**
+     * A change to make to the grid.
+     */
+    public interface Edit {
+        void apply(Grid grid);
+    }
+
+    // Pending edits, newest first; producers push with a CAS, the consumer swaps the whole stack out
+    private final AtomicReference<Node> pending = new AtomicReference<>();
+
+    /**
+     * Submits an edit. Safe to call from any thread.
+     *
+     * @param edit the edit to apply later
+     */
+    public void submit(Edit edit) {
+        Node node = new Node(edit);
+        Node top;
+        do {
+            top = pending.get();
+            node.next = top;
+        } while (!pending.compareAndSet(top, node));
+    }
+
+    /**
+     * Submits a toggle of one cell.
+     *
+     * @param row the row index
+     * @param col the column index
+     */
+    public void toggleCell(int row, int col) {
+        submit(grid -> grid.toggleCell(row, col));
+    }
+
+    /**
+     * Submits a change of one cell's state.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @param alive true to make the cell alive, false to make it dead
+     */
+    public void setCellState(int row, int col, boolean alive) {
+        submit(grid -> grid.setCellState(row, col, alive));
+    }
+
+    /**
+     * Submits a pattern placement.
+     *
+     * @param pattern the packed pattern to blit
+     * @param row the top-left row position
+     * @param col the top-left column position
+     * @param mode how the pattern combines with the grid
+     */
+    public void blit(PackedPattern pattern, int row, int col, BlitMode mode) {
+        submit(grid -> grid.blit(pattern, row, col, mode));
+    }
+
+    /**
+     * Checks if any edits are waiting.
+     *
+     * @return true if there is nothing to apply
+     */
+    public boolean isEmpty() {
+        return pending.get() == null;
+    }
+
+    /**
+     * Applies every pending edit to the grid, oldest first.
+     * Must only be called by the thread that steps the grid.
+     *
+     * @param grid the grid to edit
+     * @return the number of edits applied
+     */
+    public int applyTo(Grid grid) {
+        Node batch = pending.getAndSet(null);
+        if (batch == null) {
+            return 0;
+        }
+
+        // The stack is newest first, so reverse it to apply in submission order
+        Node oldest = null;
+        int count = 0;
+        while (batch != null) {
+            Node next = batch.next;
+            batch.next = oldest;
+            oldest = batch;
+            batch = next;
+            count++;
+        }
+        for (Node node = oldest; node != null; node = node.next) {
+            node.edit.apply(grid);
+        }
+        return count;
+    }
+
+    private static final class Node {
+        private final Edit edit;
+        private Node next;
+
+        Node(Edit edit) {
+            this.edit = edit;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+/**
+ * Differential tester for stepping engines.
+ * Every case runs the reference engine (Grid.nextGeneration) and each registered engine from the
+ * same board, compares a hash of the boards after every generation, and times each engine's steps.
+ * When an engine first disagrees with the reference, its starting board is shrunk by removing live
+ * cells one at a time while the disagreement remains, so the report shows a small board that
+ * reproduces the bug. An engine that has diverged is left out of later cases.
+ */
+public class EngineHarness {
+    private final LifeEngine reference = LifeEngine.reference();
+    private final List<LifeEngine> engines = new ArrayList<>();
+    private final List<Long> stepNanos = new ArrayList<>(); // index 0 is the reference
+    private final List<Divergence> divergences = new ArrayList<>();
+    private int cases;
+    private long generations;
+
+    /**
+     * Creates a harness with no engines besides the reference.
+     */
+    public EngineHarness() {
+        stepNanos.add(0L);
+    }
+
+    /**
+     * Registers an engine to compare against the reference.
+     *
+     * @param engine the engine to check
+     */
+    public void register(LifeEngine engine) {
+        engines.add(engine);
+        stepNanos.add(0L);
+    }
+
+    /**
+     * Runs one case: every engine that has not diverged yet steps the board alongside the reference.
+     *
+     * @param caseName the name to report the case under
+     * @param start the starting board; it is not modified
+     * @param generationCount the number of generations to run
+     * @return true if every engine matched the reference throughout
+     */
+    public boolean runCase(String caseName, Grid start, int generationCount) {
+        List<LifeEngine> active = new ArrayList<>();
+        for (LifeEngine engine : engines) {
+            if (findDivergence(engine.getName()) == null) {
+                engine.load(start);
+                active.add(engine);
+            }
+        }
+        reference.load(start);
+        cases++;
+
+        boolean matched = true;
+        for (int generation = 1; generation <= generationCount && !active.isEmpty(); generation++) {
+            long before = System.nanoTime();
+            reference.step();
+            stepNanos.set(0, stepNanos.get(0) + System.nanoTime() - before);
+            long expected = hash(reference.snapshot());
+
+            for (int i = 0; i < active.size(); i++) {
+                LifeEngine engine = active.get(i);
+                int slot = engines.indexOf(engine) + 1;
+                before = System.nanoTime();
+                engine.step();
+                stepNanos.set(slot, stepNanos.get(slot) + System.nanoTime() - before);
+
+                if (hash(engine.snapshot()) != expected) {
+                    Grid minimal = shrink(engine, start, generation);
+                    divergences.add(new Divergence(engine.getName(), caseName, generation, minimal,
+                            firstDivergence(engine, minimal, generation)));
+                    active.remove(i--);
+                    matched = false;
+                }
+            }
+            generations++;
+        }
+        return matched;
+    }
+
+    /**
+     * Runs the standard suite: random boards of awkward sizes and densities, every predefined pattern
+     * in the middle of a board and against its edges, edge cases such as full and one-cell-wide boards,
+     * and a few long runs.
+     *
+     * @param seed the seed for the random boards
+     */
+    public void runAll(long seed) {
+        // Random boards, with widths around the 64-bit word boundaries
+        int[][] sizes = {{1, 1}, {1, 70}, {3, 3}, {17, 63}, {32, 64}, {40, 65}, {64, 64}, {50, 129}};
+        double[] densities = {0.1, 0.3, 0.5, 0.9};
+        for (int[] size : sizes) {
+            for (double density : densities) {
+                Grid grid = new Grid(size[0], size[1]);
+                grid.randomize(density, seed++);
+                runCase("random " + size[0] + "x" + size[1] + " at " + density, grid, 100);
+            }
+        }
+
+        // Every pattern, centered and pushed into each corner
+        for (Pattern pattern : Pattern.allPatterns()) {
+            int height = pattern.getHeight() + 20;
+            int width = pattern.getWidth() + 20;
+            int[][] positions = {
+                    {10, 10}, {0, 0}, {0, width - pattern.getWidth()},
+                    {height - pattern.getHeight(), 0}, {height - pattern.getHeight(), width - pattern.getWidth()}
+            };
+            for (int[] position : positions) {
+                Grid grid = new Grid(height, width);
+                pattern.placeOnGrid(grid, position[0], position[1]);
+                runCase(pattern.getName() + " at " + position[0] + "," + position[1], grid, 200);
+            }
+        }
+
+        // Edge cases
+        runCase("empty 10x10", new Grid(10, 10), 10);
+        runCase("full 8x8", filled(8, 8, (row, col) -> true), 20);
+        runCase("full 1x64", filled(1, 64, (row, col) -> true), 20);
+        runCase("full 64x1", filled(64, 1, (row, col) -> true), 20);
+        runCase("checkerboard 65x65", filled(65, 65, (row, col) -> (row + col) % 2 == 0), 50);
+        runCase("stripes 33x130", filled(33, 130, (row, col) -> row % 3 == 0), 50);
+        runCase("border 66x66", filled(66, 66, (row, col) -> row == 0 || col == 0 || row == 65 || col == 65), 100);
+
+        // Long runs
+        for (int i = 0; i < 3; i++) {
+            Grid grid = new Grid(128, 128);
+            grid.randomize(0.35, seed++);
+            runCase("long run 128x128 #" + i, grid, 2000);
+        }
+    }
+
+    /**
+     * Gets the divergences found so far, at most one per engine.
+     *
+     * @return the divergences
+     */
+    public List<Divergence> getDivergences() {
+        return divergences;
+    }
+
+    /**
+     * Prints the number of cases run, any divergences, and each engine's stepping time
+     * relative to the reference, all measured in the same run.
+     */
+    public void printReport() {
+        System.out.println(cases + " cases, " + generations + " generations");
+        for (Divergence divergence : divergences) {
+            System.out.println();
+            System.out.println(divergence);
+            divergence.board.printGrid();
+        }
+
+        System.out.println();
+        System.out.printf("%-22s %12s %9s%n", "Engine", "Step time", "Speedup");
+        double referenceMillis = stepNanos.get(0) / 1e6;
+        System.out.printf("%-22s %9.1f ms %8.2fx%n", reference.getName() + " (reference)", referenceMillis, 1.0);
+        for (int i = 0; i < engines.size(); i++) {
+            double millis = stepNanos.get(i + 1) / 1e6;
+            String status = findDivergence(engines.get(i).getName()) == null ? "" : "  DIVERGED";
+            System.out.printf("%-22s %9.1f ms %8.2fx%s%n", engines.get(i).getName(), millis, referenceMillis / millis, status);
+        }
+    }
+
+    private Divergence findDivergence(String engineName) {
+        for (Divergence divergence : divergences) {
+            if (divergence.engine.equals(engineName)) {
+                return divergence;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the first generation, up to a limit, where an engine disagrees with the reference.
+     *
+     * @return the generation, or 0 if the engine agrees throughout
+     */
+    private static int firstDivergence(LifeEngine engine, Grid start, int limit) {
+        LifeEngine reference = LifeEngine.reference();
+        reference.load(start);
+        engine.load(start);
+        for (int generation = 1; generation <= limit; generation++) {
+            reference.step();
+            engine.step();
+            if (hash(reference.snapshot()) != hash(engine.snapshot())) {
+                return generation;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Removes live cells from a starting board, one at a time, as long as the engine still
+     * disagrees with the reference within the given number of generations.
+     */
+    private static Grid shrink(LifeEngine engine, Grid start, int limit) {
+        Grid board = start.copy();
+        boolean removed = true;
+        while (removed) {
+            removed = false;
+            PrimitiveIterator.OfLong live = board.copy().liveCellIterator();
+            while (live.hasNext()) {
+                long cell = live.nextLong();
+                board.setCellState(Grid.cellRow(cell), Grid.cellCol(cell), false);
+                if (firstDivergence(engine, board, limit) > 0) {
+                    removed = true;
+                } else {
+                    board.setCellState(Grid.cellRow(cell), Grid.cellCol(cell), true);
+                }
+            }
+        }
+        return board;
+    }
+
+    private static long hash(Grid grid) {
+        long[] words = new long[grid.getHeight() * grid.getWordsPerRow()];
+        grid.copyWords(words);
+        return (long) Arrays.hashCode(words) << 32 ^ grid.getPopulation();
+    }
+
+    private interface CellRule {
+        boolean isAlive(int row, int col);
+    }
+
+    private static Grid filled(int height, int width, CellRule rule) {
+        Grid grid = new Grid(height, width);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.setCellState(row, col, rule.isAlive(row, col));
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * The first disagreement between an engine and the reference.
+     */
+    public static final class Divergence {
+        private final String engine;
+        private final String caseName;
+        private final int generation;
+        private final Grid board;
+        private final int boardGeneration;
+
+        Divergence(String engine, String caseName, int generation, Grid board, int boardGeneration) {
+            this.engine = engine;
+            this.caseName = caseName;
+            this.generation = generation;
+            this.board = board;
+            this.boardGeneration = boardGeneration;
+        }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public String getCaseName() {
+            return caseName;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public Grid getBoard() {
+            return board;
+        }
+
+        public int getBoardGeneration() {
+            return boardGeneration;
+        }
+
+        @Override
+        public String toString() {
+            return engine + " diverged from the reference at generation " + generation + " of \"" + caseName
+                    + "\"; this " + board.getPopulation() + "-cell board diverges at generation " + boardGeneration + ":";
+        }
+    }
+
+    /**
+     * Checks every built-in engine against the reference and prints the report.
+     * An optional argument sets the seed for the random boards.
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        EngineHarness harness = new EngineHarness();
+        harness.register(LifeEngine.bitSliced());
+        harness.register(LifeEngine.generations());
+        harness.register(LifeEngine.largerThanLife());
+        harness.runAll(seed);
+        harness.printReport();
+        if (!harness.getDivergences().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
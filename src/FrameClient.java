@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Receives frames from a FrameServer and keeps a local copy of the viewed region.
+ */
+public class FrameClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final Inflater inflater = new Inflater();
+    private long[] region;
+    private int rows;
+    private int cols;
+    private int generation = -1;
+
+    /**
+     * Connects to a server and asks for a viewport.
+     *
+     * @param host the server host
+     * @param port the server port
+     * @param top the first row of the viewport
+     * @param left the first column of the viewport
+     * @param rows the number of rows to view, or 0 for the whole grid
+     * @param cols the number of columns to view, or 0 for the whole grid
+     * @param maxFps the most frames per second the server should send
+     * @throws IOException if the connection fails
+     */
+    public FrameClient(String host, int port, int top, int left, int rows, int cols, int maxFps) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        ByteBuffer request = ByteBuffer.allocate(20);
+        request.putInt(top).putInt(left).putInt(rows).putInt(cols).putInt(maxFps).flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+    }
+
+    /**
+     * Waits for the next frame and applies it to the local region.
+     *
+     * @return the generation number of the frame
+     * @throws IOException if the connection fails or the frame is malformed
+     */
+    public int receiveFrame() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FrameServer.HEADER_BYTES);
+        FrameServer.readFully(channel, header);
+        byte type = header.get();
+        int frameGeneration = header.getInt();
+        int frameRows = header.getInt();
+        int frameCols = header.getInt();
+        int bodyLength = header.getInt();
+        if (frameRows < 0 || frameCols < 0 || bodyLength < 0) {
+            throw new IOException("Bad frame header " + frameRows + "x" + frameCols + ", " + bodyLength + " bytes");
+        }
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        FrameServer.readFully(channel, body);
+
+        long[] words = new long[frameRows * ((frameCols + 63) >>> 6)];
+        byte[] raw = new byte[words.length * 8];
+        inflater.reset();
+        inflater.setInput(body.array());
+        try {
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated frame");
+                }
+                length += inflated;
+            }
+            if (length < raw.length) {
+                throw new IOException("Frame ends after " + length + " of " + raw.length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt frame", e);
+        }
+        ByteBuffer.wrap(raw).asLongBuffer().get(words);
+
+        if (type == FrameServer.KEYFRAME) {
+            region = words;
+            rows = frameRows;
+            cols = frameCols;
+        } else {
+            if (region == null || frameRows != rows || frameCols != cols) {
+                throw new IOException("Delta frame without a matching keyframe");
+            }
+            for (int i = 0; i < words.length; i++) {
+                region[i] ^= words[i];
+            }
+        }
+        generation = frameGeneration;
+        return generation;
+    }
+
+    /**
+     * Gets the generation number of the last received frame.
+     *
+     * @return the generation, or -1 before the first frame
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Copies the viewed region into a new grid.
+     *
+     * @return a grid the size of the viewport
+     */
+    public Grid getRegion() {
+        Grid grid = new Grid(rows, cols);
+        if (region != null) {
+            grid.setWords(region);
+        }
+        return grid;
+    }
+
+    /**
+     * Disconnects from the server.
+     */
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    /**
+     * Connects to a server and prints the generation and population of each frame.
+     * Arguments: host port [top left rows cols fps].
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        int[] viewport = {0, 0, 0, 0, 10};
+        for (int i = 0; i < viewport.length && i + 2 < args.length; i++) {
+            viewport[i] = Integer.parseInt(args[i + 2]);
+        }
+        try (FrameClient client = new FrameClient(host, port, viewport[0], viewport[1], viewport[2], viewport[3], viewport[4])) {
+            while (true) {
+                int frameGeneration = client.receiveFrame();
+                System.out.println("Generation " + frameGeneration + ": " + client.getRegion().getPopulation() + " alive");
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exports generations of a grid as PNG frames or an animated GIF, without a GUI.
+ * The stepping thread only copies the exported region's words; rendering and encoding happen on background
+ * threads fed by a bounded queue. When the queue is full, capture() drops the frame so stepping never
+ * stalls, and getDroppedFrames() reports how many were lost. A recording that must have no gaps can call
+ * setBlockWhenBehind(true) to wait for room instead.
+ * Live cells are drawn black on white, one scale x scale square of pixels per cell.
+ */
+public class FrameExporter implements AutoCloseable {
+
+    /**
+     * The kind of output an exporter writes.
+     */
+    public enum Format {
+        PNG_SEQUENCE,
+        ANIMATED_GIF
+    }
+
+    private static final IndexColorModel PALETTE = new IndexColorModel(1, 2,
+            new byte[] {(byte) 255, 0}, new byte[] {(byte) 255, 0}, new byte[] {(byte) 255, 0});
+
+    private final Format format;
+    private final Path output;
+    private final int frameDelayMs;
+    private final ThreadPoolExecutor encoders;
+    private final Semaphore slots; // one per frame that may be queued or encoding; this bounds the pool's queue
+    private final AtomicLong exportedFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    private int every = 1;
+    private int scale = 1;
+    private boolean blockWhenBehind;
+    private Rectangle crop; // in cells; null exports the whole grid
+
+    // Only touched by the single GIF encoder thread
+    private ImageWriter gifWriter;
+    private ImageOutputStream gifStream;
+
+    private FrameExporter(Format format, Path output, int frameDelayMs, int threads, int queueCapacity) {
+        this.format = format;
+        this.output = output;
+        this.frameDelayMs = frameDelayMs;
+        this.encoders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "frame-exporter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.slots = new Semaphore(threads + queueCapacity);
+    }
+
+    /**
+     * Creates an exporter that writes each frame as frame_NNNNNN.png in a directory.
+     * PNG frames are independent, so several threads can encode them at once.
+     *
+     * @param directory the directory for the frames, created if missing
+     * @param threads the number of encoder threads
+     * @param queueCapacity the number of frames that may wait for an encoder
+     * @return the exporter
+     * @throws IOException if the directory cannot be created
+     */
+    public static FrameExporter pngSequence(Path directory, int threads, int queueCapacity) throws IOException {
+        Files.createDirectories(directory);
+        return new FrameExporter(Format.PNG_SEQUENCE, directory, 0, threads, queueCapacity);
+    }
+
+    /**
+     * Creates an exporter that writes all frames into one looping animated GIF.
+     * GIF frames must be written in order, so a single thread encodes them.
+     *
+     * @param file the GIF file to write
+     * @param frameDelayMs the display time of each frame in milliseconds
+     * @param queueCapacity the number of frames that may wait for the encoder
+     * @return the exporter
+     */
+    public static FrameExporter animatedGif(Path file, int frameDelayMs, int queueCapacity) {
+        return new FrameExporter(Format.ANIMATED_GIF, file, frameDelayMs, 1, queueCapacity);
+    }
+
+    /**
+     * Exports only every Nth generation.
+     *
+     * @param every the generation interval between frames (1 exports every generation)
+     */
+    public void setEvery(int every) {
+        if (every < 1) {
+            throw new IllegalArgumentException("Frame interval must be at least 1");
+        }
+        this.every = every;
+    }
+
+    /**
+     * Sets the size of each cell in pixels.
+     *
+     * @param scale the number of pixels along each side of a cell
+     */
+    public void setScale(int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale must be at least 1");
+        }
+        this.scale = scale;
+    }
+
+    /**
+     * Chooses what capture() does when the encoders are behind: drop the frame (the default, so stepping
+     * is never slowed) or wait for room (for recordings that must have no gaps).
+     *
+     * @param blockWhenBehind true to wait for room instead of dropping frames
+     */
+    public void setBlockWhenBehind(boolean blockWhenBehind) {
+        this.blockWhenBehind = blockWhenBehind;
+    }
+
+    /**
+     * Limits the frames to a region of the grid.
+     *
+     * @param crop the region in cells (x = column, y = row), or null for the whole grid
+     */
+    public void setCrop(Rectangle crop) {
+        this.crop = crop == null ? null : new Rectangle(crop);
+    }
+
+    /**
+     * Gets the output format of this exporter.
+     *
+     * @return the format
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Queues the grid for export if the generation is one of the exported ones.
+     * Call this after each step; it copies the grid and returns, dropping the frame if the queue is full
+     * unless it was set to block when behind.
+     *
+     * @param grid the grid to export
+     * @param generation the generation number of the grid
+     * @return true if the frame was queued, false if it was skipped or dropped
+     */
+    public boolean capture(Grid grid, int generation) {
+        if (generation % every != 0) {
+            return false;
+        }
+        Rectangle region = new Rectangle(0, 0, grid.getWidth(), grid.getHeight());
+        if (crop != null) {
+            region = region.intersection(crop);
+            if (region.isEmpty()) {
+                throw new IllegalArgumentException("Crop region is outside the grid");
+            }
+        }
+
+        try {
+            if (blockWhenBehind) {
+                slots.acquire();
+            } else if (!slots.tryAcquire()) {
+                droppedFrames.incrementAndGet();
+                return false;
+            }
+        } catch (InterruptedException e) {
+            // The caller is shutting down; count the frame as dropped and keep the interrupt
+            Thread.currentThread().interrupt();
+            droppedFrames.incrementAndGet();
+            return false;
+        }
+
+        long[] words = new long[region.height * ((region.width + 63) >>> 6)];
+        int wordsPerRow = grid.copyRegion(region.y, region.x, region.height, region.width, words);
+        Frame frame = new Frame(generation, words, wordsPerRow, region.width, region.height, scale);
+        encoders.execute(() -> {
+            try {
+                encode(frame);
+            } finally {
+                slots.release();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Gets the number of frames written so far.
+     *
+     * @return the exported frame count
+     */
+    public long getExportedFrames() {
+        return exportedFrames.get();
+    }
+
+    /**
+     * Gets the number of frames dropped because the encoders were behind.
+     *
+     * @return the dropped frame count
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Waits for the queued frames to be written and finishes the output.
+     *
+     * @throws IOException if any frame could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        encoders.shutdown();
+        try {
+            while (!encoders.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting for the queue to drain
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while finishing the export", e);
+        }
+
+        if (gifWriter != null) {
+            try {
+                gifWriter.endWriteSequence();
+                gifStream.close();
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                gifWriter.dispose();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Renders and writes one frame on an encoder thread.
+     */
+    private void encode(Frame frame) {
+        if (failure.get() != null) {
+            return;
+        }
+        try {
+            BufferedImage image = frame.render();
+            if (format == Format.PNG_SEQUENCE) {
+                String name = String.format("frame_%06d.png", frame.generation);
+                ImageIO.write(image, "png", output.resolve(name).toFile());
+            } else {
+                writeGifFrame(image);
+            }
+            exportedFrames.incrementAndGet();
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Appends one frame to the animated GIF, starting the file on the first frame.
+     * Only the first frame carries the loop extension.
+     */
+    private void writeGifFrame(BufferedImage image) throws IOException {
+        boolean first = gifWriter == null;
+        if (first) {
+            gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+            Files.deleteIfExists(output);
+            gifStream = ImageIO.createImageOutputStream(output.toFile());
+            gifWriter.setOutput(gifStream);
+            gifWriter.prepareWriteSequence(null);
+        }
+
+        ImageWriteParam param = gifWriter.getDefaultWriteParam();
+        IIOMetadata metadata = gifWriter.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+        String formatName = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(formatName);
+
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(Math.max(1, frameDelayMs / 10)));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        // NETSCAPE2.0 extension with a loop count of 0 makes the animation repeat forever
+        if (first) {
+            IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});
+            extensions.appendChild(loop);
+            root.appendChild(extensions);
+        }
+
+        metadata.setFromTree(formatName, root);
+        gifWriter.writeToSequence(new IIOImage(image, null, metadata), param);
+    }
+
+    /**
+     * A copy of the exported region's words waiting to be rendered.
+     */
+    private static final class Frame {
+        private final int generation;
+        private final long[] words;
+        private final int wordsPerRow;
+        private final int width;
+        private final int height;
+        private final int scale;
+
+        Frame(int generation, long[] words, int wordsPerRow, int width, int height, int scale) {
+            this.generation = generation;
+            this.words = words;
+            this.wordsPerRow = wordsPerRow;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+        }
+
+        /**
+         * Draws the frame into a 1-bit image, one scanline per cell row, copied scale times.
+         */
+        BufferedImage render() {
+            int imageWidth = width * scale;
+            int imageHeight = height * scale;
+            BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_BYTE_BINARY, PALETTE);
+            byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            int stride = (imageWidth + 7) >>> 3;
+
+            byte[] scanline = new byte[stride];
+            for (int y = 0; y < height; y++) {
+                Arrays.fill(scanline, (byte) 0);
+                int base = y * wordsPerRow;
+                for (int x = 0; x < width; x++) {
+                    if ((words[base + (x >>> 6)] >>> x & 1L) != 0) {
+                        for (int px = x * scale; px < (x + 1) * scale; px++) {
+                            scanline[px >>> 3] |= (byte) (0x80 >>> (px & 7));
+                        }
+                    }
+                }
+                for (int copy = 0; copy < scale; copy++) {
+                    System.arraycopy(scanline, 0, pixels, (y * scale + copy) * stride, stride);
+                }
+            }
+            return image;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
+
+/**
+ * Streams a running grid to remote viewers over plain TCP.
+ * The simulation calls offer() after each step, which only swaps in a copy-on-write snapshot of the grid.
+ * Each viewer has its own sender thread that picks up the newest copy at the viewer's frame rate,
+ * crops it to the viewer's viewport and sends it as a keyframe followed by XOR deltas,
+ * all deflate-compressed. Generations that arrive faster than a viewer's rate are skipped; since the
+ * next delta is taken against what the viewer last received, nothing is lost but the in-between frames.
+ *
+ * <p>Protocol (all ints big-endian):
+ * <ul>
+ * <li>viewer to server, once: top, left, rows, cols, maxFps (rows or cols of 0 mean the whole grid);
+ * the viewport is cut off at the grid's bottom and right edges, and a negative value or a viewport
+ * entirely outside the grid closes the connection</li>
+ * <li>server to viewer, per frame: type (1 byte: 0 keyframe, 1 delta), generation, rows, cols,
+ * payload length, then the compressed region words laid out like Grid.copyRegion</li>
+ * </ul>
+ */
+public class FrameServer implements AutoCloseable {
+    public static final byte KEYFRAME = 0;
+    public static final byte DELTA = 1;
+    static final int HEADER_BYTES = 17;
+
+    private final ServerSocketChannel server;
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+    private final Thread acceptThread;
+    private volatile Snapshot latest;
+    private long sequence; // of the last offered snapshot; only touched by the thread calling offer()
+    private volatile boolean closed;
+
+    /**
+     * Opens a server on the given port of the loopback interface and starts accepting viewers.
+     * Use the address constructor to accept viewers from other machines.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be opened
+     */
+    public FrameServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Opens a server on the given address and starts accepting viewers.
+     *
+     * @param address the address to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public FrameServer(InetSocketAddress address) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(address);
+        acceptThread = new Thread(this::acceptLoop, "frame-server-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Gets the number of connected viewers.
+     *
+     * @return the viewer count
+     */
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    /**
+     * Makes the grid's current state the newest frame for every viewer.
+     * This snapshots the grid and wakes the sender threads; it never waits on the network.
+     * With no viewers connected it does nothing, and the next viewer starts from the next offer.
+     *
+     * @param grid the grid after its latest step
+     * @param generation the generation number of the grid
+     */
+    public void offer(Grid grid, int generation) {
+        if (viewers.isEmpty()) {
+            latest = null;
+            return;
+        }
+        latest = new Snapshot(++sequence, generation, grid.snapshot());
+        for (Viewer viewer : viewers) {
+            LockSupport.unpark(viewer.thread);
+        }
+    }
+
+    /**
+     * Stops accepting viewers and disconnects the connected ones.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Viewer viewer : viewers) {
+            viewer.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.socket().setTcpNoDelay(true);
+                Viewer viewer = new Viewer(channel);
+                viewers.add(viewer);
+                viewer.thread.start();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads exactly buffer.remaining() bytes.
+     */
+    static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * A frozen snapshot of the grid at one generation.
+     */
+    private static final class Snapshot {
+        private final long sequence;
+        private final int generation;
+        private final Grid grid;
+
+        Snapshot(long sequence, int generation, Grid grid) {
+            this.sequence = sequence;
+            this.generation = generation;
+            this.grid = grid;
+        }
+    }
+
+    /**
+     * One connected viewer and the thread that sends it frames.
+     */
+    private final class Viewer {
+        private final SocketChannel channel;
+        private final Thread thread;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        Viewer(SocketChannel channel) {
+            this.channel = channel;
+            this.thread = new Thread(this::run, "frame-server-viewer");
+            this.thread.setDaemon(true);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            LockSupport.unpark(thread);
+        }
+
+        private void run() {
+            try {
+                ByteBuffer request = ByteBuffer.allocate(20);
+                readFully(channel, request);
+                int top = request.getInt();
+                int left = request.getInt();
+                int rows = request.getInt();
+                int cols = request.getInt();
+                long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, request.getInt());
+                if (top < 0 || left < 0 || rows < 0 || cols < 0) {
+                    throw new IOException("Bad viewport " + top + ", " + left + ", " + rows + "x" + cols);
+                }
+
+                long sentSequence = 0;
+                long nextSend = System.nanoTime();
+                long[] sent = null;
+                int sentRows = 0;
+                int sentCols = 0;
+                while (!closed && channel.isOpen()) {
+                    Snapshot snapshot = latest;
+                    long wait = nextSend - System.nanoTime();
+                    if (snapshot == null || snapshot.sequence == sentSequence || wait > 0) {
+                        LockSupport.parkNanos(this, wait > 0 ? wait : TimeUnit.MILLISECONDS.toNanos(100));
+                        continue;
+                    }
+
+                    // Clip the viewport to the grid, which bounds what a viewer can make us allocate
+                    Grid grid = snapshot.grid;
+                    int regionRows = (int) Math.min(rows > 0 ? (long) top + rows : grid.getHeight(), grid.getHeight()) - top;
+                    int regionCols = (int) Math.min(cols > 0 ? (long) left + cols : grid.getWidth(), grid.getWidth()) - left;
+                    if (regionRows <= 0 || regionCols <= 0) {
+                        throw new IOException("Viewport is outside the " + grid.getHeight() + "x" + grid.getWidth() + " grid");
+                    }
+                    long[] region = new long[regionRows * ((regionCols + 63) >>> 6)];
+                    grid.copyRegion(top, left, regionRows, regionCols, region);
+
+                    byte type = sent == null || regionRows != sentRows || regionCols != sentCols ? KEYFRAME : DELTA;
+                    long[] payload = region;
+                    if (type == DELTA) {
+                        payload = new long[region.length];
+                        for (int i = 0; i < region.length; i++) {
+                            payload[i] = region[i] ^ sent[i];
+                        }
+                    }
+                    send(type, snapshot.generation, regionRows, regionCols, payload);
+
+                    sent = region;
+                    sentRows = regionRows;
+                    sentCols = regionCols;
+                    sentSequence = snapshot.sequence;
+                    nextSend = System.nanoTime() + interval;
+                }
+            } catch (IOException | RuntimeException e) {
+                // The viewer disconnected or sent a request we cannot serve; either way only this viewer is dropped
+            } finally {
+                viewers.remove(this);
+                deflater.end();
+                close();
+            }
+        }
+
+        private void send(byte type, int generation, int rows, int cols, long[] words) throws IOException {
+            ByteBuffer raw = ByteBuffer.allocate(words.length * 8);
+            raw.asLongBuffer().put(words);
+
+            deflater.reset();
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] compressed = new byte[raw.capacity() + raw.capacity() / 1000 + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.put(type).putInt(generation).putInt(rows).putInt(cols).putInt(length).flip();
+            ByteBuffer body = ByteBuffer.wrap(compressed, 0, length);
+            ByteBuffer[] frame = {header, body};
+            while (body.hasRemaining()) {
+                channel.write(frame);
+            }
+        }
+    }
+
+    /**
+     * Serves a random soup on the given loopback port (default 7777) until the process is stopped.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        Grid grid = new Grid(200, 200);
+        grid.randomize();
+        try (FrameServer server = new FrameServer(port)) {
+            System.out.println("Serving on port " + server.getPort());
+            for (int generation = 0; ; generation++) {
+                server.offer(grid, generation);
+                grid.nextGeneration();
+                Thread.sleep(20);
+            }
+        }
+    }
+}
@@ -1,19 +1,35 @@
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * GUI application for Conway's Game of Life.
  * Features:
- * - Visual grid display with clickable cells
+ * - Visual grid display with clickable cells, editable while running
  * - Start/Stop/Step/Clear controls
+ * - Adjustable speed, from slow motion to as fast as possible
+ * - Stepping back and scrubbing through recent generations
  * - Random generation
- * - Predefined pattern insertion
+ * - Pattern insertion from a searchable pattern library
  * - Configurable grid size
+ * - Multi-state Generations rules (Brian's Brain, Star Wars) drawn in color
+ * - Larger-than-Life rules with wide neighborhoods (Bosco's Rule, Majority)
+ * - A heatmap overlay of where the board has been changing
  */
 public class GameOfLifeGUI extends JFrame {
 
     private Grid grid;
+    private final PatternLibrary library;
+    private GenerationsGrid multiState; // the board while a Generations rule is selected, otherwise null
+    private Color[] stateColors;
+    private LargerThanLifeSimulator largeRule; // steps the grid while a Larger-than-Life rule is selected, otherwise null
+    private GenerationHistory history;
+    private EditQueue edits;
     private GridPanel gridPanel;
     private Timer timer;
     private boolean running;
@@ -21,16 +37,37 @@ public class GameOfLifeGUI extends JFrame {
     // UI Components
     private JButton startButton;
     private JButton stepButton;
+    private JButton backButton;
     private JButton clearButton;
     private JButton randomButton;
     private JComboBox<String> patternSelector;
+    private JComboBox<String> ruleSelector;
+    private JCheckBox heatmapBox;
     private JLabel generationLabel;
+    private JLabel rateLabel;
+    private JSlider speedSlider;
+    private JLabel speedLabel;
+    private JSpinner fpsSpinner;
+    private JSlider historySlider;
+    private boolean updatingHistory; // true while the slider is moved by code rather than the user
     private JSpinner widthSpinner;
     private JSpinner heightSpinner;
 
     private int generation;
     private static final int DEFAULT_CELL_SIZE = 10;
-    private static final int DEFAULT_DELAY = 200; // milliseconds between generations
+    private static final int DEFAULT_FPS = 30;
+    private static final int[] SPEEDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 0}; // generations per second, 0 = max
+    private static final int DEFAULT_SPEED = 2; // index into SPEEDS: 5 generations per second
+    private static final double STEP_BUDGET = 0.8; // share of each frame that may be spent stepping
+    private static final int HEATMAP_BLOCK_SIZE = 8; // cells per side of a heatmap block
+    private static final String[] RULES = {"Life", "Brian's Brain", "Star Wars", "Bosco's Rule", "Majority"};
+
+    // Frame pacing and measured rates
+    private long lastTickNanos;
+    private double owedGenerations;
+    private long rateWindowStart;
+    private int rateWindowGenerations;
+    private int rateWindowFrames;
 
     /**
      * Creates the Game of Life GUI with default 50x50 grid.
@@ -46,11 +83,15 @@ public class GameOfLifeGUI extends JFrame {
      */
     public GameOfLifeGUI(int width, int height) {
         grid = new Grid(width, height);
+        library = PatternLibrary.standard();
+        history = new GenerationHistory();
+        edits = new EditQueue();
         generation = 0;
         running = false;
 
         initializeUI();
         setupTimer();
+        recordHistory();
     }
 
     /**
@@ -92,6 +133,11 @@ public class GameOfLifeGUI extends JFrame {
         startButton.addActionListener(e -> toggleSimulation());
         panel.add(startButton);
 
+        // Back button
+        backButton = new JButton("Back");
+        backButton.addActionListener(e -> stepBack());
+        panel.add(backButton);
+
         // Step button
         stepButton = new JButton("Step");
         stepButton.addActionListener(e -> step());
@@ -109,34 +155,51 @@ public class GameOfLifeGUI extends JFrame {
 
         panel.add(new JSeparator(SwingConstants.VERTICAL));
 
+        // Speed controls
+        panel.add(new JLabel("Speed:"));
+        speedSlider = new JSlider(0, SPEEDS.length - 1, DEFAULT_SPEED);
+        speedSlider.setPreferredSize(new Dimension(100, speedSlider.getPreferredSize().height));
+        speedSlider.addChangeListener(e -> updateSpeedLabel());
+        panel.add(speedSlider);
+        speedLabel = new JLabel();
+        speedLabel.setPreferredSize(new Dimension(70, 25));
+        updateSpeedLabel();
+        panel.add(speedLabel);
+
+        panel.add(new JLabel("FPS:"));
+        fpsSpinner = new JSpinner(new SpinnerNumberModel(DEFAULT_FPS, 1, 120, 5));
+        fpsSpinner.setPreferredSize(new Dimension(50, 25));
+        fpsSpinner.addChangeListener(e -> timer.setDelay(1000 / (Integer) fpsSpinner.getValue()));
+        panel.add(fpsSpinner);
+
+        panel.add(new JSeparator(SwingConstants.VERTICAL));
+
+        // Rule selector
+        panel.add(new JLabel("Rule:"));
+        ruleSelector = new JComboBox<>(RULES);
+        ruleSelector.addActionListener(e -> changeRule());
+        panel.add(ruleSelector);
+
         // Pattern selector
         panel.add(new JLabel("Pattern:"));
-        String[] patterns = {
-                "Select Pattern",
-                "-- Still Lifes --",
-                "Block",
-                "Beehive",
-                "Loaf",
-                "Boat",
-                "Tub",
-                "-- Oscillators --",
-                "Blinker",
-                "Toad",
-                "Beacon",
-                "Pulsar",
-                "Pentadecathlon",
-                "-- Spaceships --",
-                "Glider",
-                "LWSS",
-                "MWSS",
-                "HWSS",
-                "-- Generators --",
-                "Gosper Glider Gun"
-        };
-        patternSelector = new JComboBox<>(patterns);
-        patternSelector.addActionListener(e -> insertPattern());
+        List<String> patterns = new ArrayList<>();
+        patterns.add("Select Pattern");
+        for (String category : PatternLibrary.BUILT_IN_CATEGORIES) {
+            patterns.add("-- " + category + " --");
+            patterns.addAll(library.getNames(category));
+        }
+        patternSelector = new JComboBox<>(patterns.toArray(new String[0]));
+        patternSelector.addActionListener(e -> insertSelectedPattern());
         panel.add(patternSelector);
 
+        JButton libraryButton = new JButton("Library...");
+        libraryButton.addActionListener(e -> showLibrary());
+        panel.add(libraryButton);
+
+        heatmapBox = new JCheckBox("Heatmap");
+        heatmapBox.addActionListener(e -> toggleHeatmap());
+        panel.add(heatmapBox);
+
         panel.add(new JSeparator(SwingConstants.VERTICAL));
 
         // Grid size configuration
@@ -158,7 +221,7 @@ public class GameOfLifeGUI extends JFrame {
     }
 
     /**
-     * Creates the status panel showing generation count.
+     * Creates the status panel showing generation count and the history slider.
      */
     private JPanel createStatusPanel() {
         JPanel panel = new JPanel();
@@ -168,18 +231,37 @@ public class GameOfLifeGUI extends JFrame {
         generationLabel = new JLabel("Generation: 0");
         panel.add(generationLabel);
 
+        rateLabel = new JLabel();
+        rateLabel.setPreferredSize(new Dimension(180, 25));
+        panel.add(rateLabel);
+
+        panel.add(new JLabel("History:"));
+        historySlider = new JSlider(0, 0, 0);
+        historySlider.setPreferredSize(new Dimension(300, historySlider.getPreferredSize().height));
+        historySlider.addChangeListener(e -> scrubHistory());
+        panel.add(historySlider);
+
         return panel;
     }
 
     /**
      * Sets up the timer for automatic generation advancement.
+     * The timer fires once per displayed frame; each frame runs as many generations as the speed asks for.
      */
     private void setupTimer() {
-        timer = new Timer(DEFAULT_DELAY, e -> {
-            step();
+        timer = new Timer(1000 / DEFAULT_FPS, e -> {
+            tick();
         });
     }
 
+    /**
+     * Shows the selected speed next to the speed slider.
+     */
+    private void updateSpeedLabel() {
+        int speed = SPEEDS[speedSlider.getValue()];
+        speedLabel.setText(speed == 0 ? "Max" : speed + " gen/s");
+    }
+
     /**
      * Toggles the simulation between running and stopped.
      */
@@ -198,6 +280,13 @@ public class GameOfLifeGUI extends JFrame {
         running = true;
         startButton.setText("Stop");
         stepButton.setEnabled(false);
+        backButton.setEnabled(false);
+
+        lastTickNanos = System.nanoTime();
+        owedGenerations = 0;
+        rateWindowStart = lastTickNanos;
+        rateWindowGenerations = 0;
+        rateWindowFrames = 0;
         timer.start();
     }
 
@@ -208,118 +297,397 @@ public class GameOfLifeGUI extends JFrame {
         running = false;
         startButton.setText("Start");
         stepButton.setEnabled(true);
+        backButton.setEnabled(multiState == null);
         timer.stop();
+
+        // Edits made after the last frame would otherwise wait for the next start
+        if (multiState == null && edits.applyTo(grid) > 0) {
+            recordHistory();
+            gridPanel.repaint();
+        }
+    }
+
+    /**
+     * Runs one displayed frame of the simulation.
+     * Generations are owed at the selected speed since the last frame; they are run until paid off
+     * or until the frame's time budget is spent, so fast speeds skip drawing in-between generations.
+     * Edits queued during the frame are applied after its generations, so they are drawn
+     * before the next frame's rules act on them.
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        int fps = (Integer) fpsSpinner.getValue();
+        long frameNanos = 1_000_000_000L / fps;
+        int speed = SPEEDS[speedSlider.getValue()];
+
+        int toRun;
+        if (speed == 0) {
+            toRun = Integer.MAX_VALUE;
+        } else {
+            owedGenerations += speed * (now - lastTickNanos) / 1e9;
+            toRun = (int) owedGenerations;
+        }
+        lastTickNanos = now;
+
+        long deadline = now + (long) (frameNanos * STEP_BUDGET);
+        int ran = 0;
+        while (ran < toRun && (ran == 0 || System.nanoTime() < deadline)) {
+            advance();
+            ran++;
+        }
+        if (speed != 0) {
+            // Don't build up a backlog when the speed is more than the machine can do
+            owedGenerations = Math.min(owedGenerations - ran, Math.max(1.0, (double) speed / fps));
+        }
+
+        boolean edited = multiState == null && edits.applyTo(grid) > 0;
+        if (edited) {
+            recordHistory();
+        }
+        if (ran > 0 || edited) {
+            showGeneration();
+        }
+        if (ran > 0) {
+            rateWindowFrames++;
+        }
+        rateWindowGenerations += ran;
+
+        long windowNanos = System.nanoTime() - rateWindowStart;
+        if (windowNanos >= 1_000_000_000L) {
+            double seconds = windowNanos / 1e9;
+            rateLabel.setText(String.format("%.0f gen/s, %.0f frames/s",
+                    rateWindowGenerations / seconds, rateWindowFrames / seconds));
+            rateWindowStart = System.nanoTime();
+            rateWindowGenerations = 0;
+            rateWindowFrames = 0;
+        }
     }
 
     /**
      * Advances one generation.
      */
     private void step() {
-        grid.nextGeneration();
+        advance();
+        showGeneration();
+    }
+
+    /**
+     * Advances the grid one generation and records it, without updating the display.
+     * Queued edits are applied by tick() and stop() after stepping, so they are shown before they are stepped.
+     * Under a Generations rule there is no history; the multi-state board just steps.
+     */
+    private void advance() {
+        if (multiState != null) {
+            multiState.nextGeneration();
+            generation++;
+            return;
+        }
+        if (largeRule != null) {
+            largeRule.nextGeneration(grid);
+        } else {
+            grid.nextGeneration();
+        }
         generation++;
+        history.record(grid, generation);
+    }
+
+    /**
+     * Updates the generation label, history slider and grid display.
+     */
+    private void showGeneration() {
+        generationLabel.setText("Generation: " + generation);
+        if (multiState == null) {
+            updateHistorySlider();
+        }
+        gridPanel.repaint();
+    }
+
+    /**
+     * Goes back one recorded frame.
+     */
+    private void stepBack() {
+        stop();
+        if (multiState == null && history.canStepBack()) {
+            generation = history.stepBack(grid);
+            generationLabel.setText("Generation: " + generation);
+            updateHistorySlider();
+            gridPanel.repaint();
+        }
+    }
+
+    /**
+     * Jumps to the frame picked on the history slider.
+     */
+    private void scrubHistory() {
+        if (updatingHistory || multiState != null || historySlider.getValue() == history.getPosition()) {
+            return;
+        }
+        stop();
+        generation = history.seek(historySlider.getValue(), grid);
         generationLabel.setText("Generation: " + generation);
         gridPanel.repaint();
     }
 
+    /**
+     * Records the current board as a new history frame. The history only follows two-state Life.
+     */
+    private void recordHistory() {
+        if (multiState != null) {
+            return;
+        }
+        history.record(grid, generation);
+        updateHistorySlider();
+    }
+
+    /**
+     * Moves the history slider to match the history without triggering a seek.
+     */
+    private void updateHistorySlider() {
+        updatingHistory = true;
+        historySlider.setMinimum(history.getOldestIndex());
+        historySlider.setMaximum(history.getNewestIndex());
+        historySlider.setValue(history.getPosition());
+        updatingHistory = false;
+    }
+
     /**
      * Clears the grid and resets generation counter.
+     * The board before clearing stays in the history.
      */
     private void clear() {
         stop();
-        grid.clear();
+        if (multiState != null) {
+            multiState.clear();
+        } else {
+            grid.clear();
+        }
+        resetHeatmap();
         generation = 0;
         generationLabel.setText("Generation: " + generation);
+        recordHistory();
         gridPanel.repaint();
     }
 
     /**
      * Randomizes the grid.
+     * The board before randomizing stays in the history.
      */
     private void randomize() {
         stop();
-        grid.randomize();
+        if (multiState != null) {
+            multiState.randomize(0.3, System.nanoTime());
+        } else {
+            grid.randomize();
+        }
+        resetHeatmap();
         generation = 0;
         generationLabel.setText("Generation: " + generation);
+        recordHistory();
         gridPanel.repaint();
     }
 
     /**
-     * Inserts the selected pattern at the center of the grid.
+     * Inserts the pattern picked in the pattern selector.
      */
-    private void insertPattern() {
+    private void insertSelectedPattern() {
         String selected = (String) patternSelector.getSelectedItem();
-        if (selected == null || selected.equals("Select Pattern") || selected.startsWith("--")) {
-            // Reset selector if it's a header or default option
-            patternSelector.setSelectedIndex(0);
+        if (selected != null && !selected.equals("Select Pattern") && !selected.startsWith("--")) {
+            insertPattern(selected);
+        }
+
+        // Reset selector
+        patternSelector.setSelectedIndex(0);
+    }
+
+    /**
+     * Shows a dialog for searching the whole pattern library and inserts the pattern picked in it.
+     */
+    private void showLibrary() {
+        JDialog dialog = new JDialog(this, "Pattern Library (" + library.size() + " patterns)", true);
+        JTextField filter = new JTextField();
+        DefaultListModel<String> matches = new DefaultListModel<>();
+        matches.addAll(library.search(""));
+        JList<String> list = new JList<>(matches);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        filter.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                refilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                refilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                refilter();
+            }
+
+            private void refilter() {
+                matches.clear();
+                matches.addAll(library.search(filter.getText()));
+                if (!matches.isEmpty()) {
+                    list.setSelectedIndex(0);
+                }
+            }
+        });
+
+        Runnable insert = () -> {
+            String name = list.getSelectedValue();
+            if (name != null) {
+                dialog.dispose();
+                insertPattern(name);
+            }
+        };
+        filter.addActionListener(e -> insert.run());
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    insert.run();
+                }
+            }
+        });
+        JButton insertButton = new JButton("Insert");
+        insertButton.addActionListener(e -> insert.run());
+
+        dialog.setLayout(new BorderLayout());
+        dialog.add(filter, BorderLayout.NORTH);
+        dialog.add(new JScrollPane(list), BorderLayout.CENTER);
+        dialog.add(insertButton, BorderLayout.SOUTH);
+        dialog.setSize(320, 420);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    /**
+     * Inserts a library pattern at the center of the grid.
+     *
+     * @param name the pattern's name in the library
+     */
+    private void insertPattern(String name) {
+        Pattern pattern;
+        try {
+            pattern = library.get(name);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Could not load " + name + ": " + e.getMessage(),
+                    "Pattern Library", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (pattern == null) {
             return;
         }
 
-        Pattern pattern = null;
-        switch (selected) {
-            // Still Lifes
-            case "Block":
-                pattern = Pattern.block();
-                break;
-            case "Beehive":
-                pattern = Pattern.BeeHive();
-                break;
-            case "Loaf":
-                pattern = Pattern.loaf();
-                break;
-            case "Boat":
-                pattern = Pattern.boat();
-                break;
-            case "Tub":
-                pattern = Pattern.tub();
-                break;
+        // Place pattern at center of grid
+        int startRow = (grid.getHeight() - pattern.getHeight()) / 2;
+        int startCol = (grid.getWidth() - pattern.getWidth()) / 2;
+        if (multiState != null) {
+            multiState.placePattern(pattern, startRow, startCol);
+            gridPanel.repaint();
+            return;
+        }
+        edits.blit(pattern.toPacked(), startRow, startCol, BlitMode.REPLACE);
+        if (!running) {
+            edits.applyTo(grid);
+            recordHistory();
+            gridPanel.repaint();
+        }
+    }
 
-            // Oscillators
-            case "Blinker":
-                pattern = Pattern.blinker();
+    /**
+     * Switches to the rule picked in the rule selector, carrying the live cells over.
+     * Going back to Life keeps only the alive cells; decaying cells are dropped.
+     * Larger-than-Life rules step the two-state grid itself, so history and queued edits keep working.
+     */
+    private void changeRule() {
+        stop();
+        GenerationsRule rule;
+        LargerThanLifeRule wideRule = null;
+        switch ((String) ruleSelector.getSelectedItem()) {
+            case "Brian's Brain":
+                rule = GenerationsRule.briansBrain();
                 break;
-            case "Toad":
-                pattern = Pattern.toad();
+            case "Star Wars":
+                rule = GenerationsRule.starWars();
                 break;
-            case "Beacon":
-                pattern = Pattern.beacon();
+            case "Bosco's Rule":
+                rule = null;
+                wideRule = LargerThanLifeRule.bosco();
                 break;
-            case "Pulsar":
-                pattern = Pattern.pulsar();
+            case "Majority":
+                rule = null;
+                wideRule = LargerThanLifeRule.majority();
                 break;
-            case "Pentadecathlon":
-                pattern = Pattern.pentadecathlon();
+            default:
+                rule = null;
                 break;
+        }
 
-            // Spaceships
-            case "Glider":
-                pattern = Pattern.glider();
-                break;
-            case "LWSS":
-                pattern = Pattern.lightweightSpaceship();
-                break;
-            case "MWSS":
-                pattern = Pattern.middleweightSpaceship();
-                break;
-            case "HWSS":
-                pattern = Pattern.heavyweightSpaceship();
-                break;
+        if (rule == null) {
+            if (multiState != null) {
+                multiState.storeTo(grid);
+                multiState = null;
+                recordHistory();
+            }
+        } else {
+            GenerationsGrid board = new GenerationsGrid(grid.getHeight(), grid.getWidth(), rule);
+            if (multiState != null) {
+                multiState.storeTo(grid);
+            }
+            board.loadFrom(grid);
+            multiState = board;
+            stateColors = stateColors(rule.getStates());
+        }
 
-            // Generators
-            case "Gosper Glider Gun":
-                pattern = Pattern.GosperGliderGun();
-                break;
+        largeRule = wideRule == null ? null : new LargerThanLifeSimulator(wideRule);
+
+        if (rule != null) {
+            setTitle(rule.getName() + " (" + rule + ")");
+        } else if (wideRule != null) {
+            setTitle(wideRule.getName() + " (" + wideRule + ")");
+        } else {
+            setTitle("Conway's Game of Life");
         }
+        backButton.setEnabled(multiState == null);
+        historySlider.setEnabled(multiState == null);
+        gridPanel.repaint();
+    }
 
-        if (pattern != null) {
-            // Place pattern at center of grid
-            int startRow = (grid.getHeight() - pattern.getHeight()) / 2;
-            int startCol = (grid.getWidth() - pattern.getWidth()) / 2;
-            pattern.placeOnGrid(grid, startRow, startCol);
-            gridPanel.repaint();
+    /**
+     * Picks a color per state: alive cells are black and decaying cells fade from blue towards white.
+     */
+    private static Color[] stateColors(int states) {
+        Color[] colors = new Color[states];
+        colors[1] = Color.BLACK;
+        for (int state = 2; state < states; state++) {
+            float fade = (float) (state - 2) / Math.max(1, states - 3);
+            colors[state] = new Color(0.15f + 0.6f * fade, 0.35f + 0.5f * fade, 0.85f + 0.1f * fade);
         }
+        return colors;
+    }
 
-        // Reset selector
-        patternSelector.setSelectedIndex(0);
+    /**
+     * Starts or stops counting activity, following the heatmap checkbox.
+     * Counting starts from zero each time it is switched on.
+     */
+    private void toggleHeatmap() {
+        grid.setActivityMap(heatmapBox.isSelected()
+                ? new ActivityMap(grid.getHeight(), grid.getWidth(), HEATMAP_BLOCK_SIZE)
+                : null);
+        gridPanel.repaint();
+    }
+
+    /**
+     * Zeroes the heatmap when a new run starts.
+     */
+    private void resetHeatmap() {
+        ActivityMap activity = grid.getActivityMap();
+        if (activity != null) {
+            activity.reset();
+        }
     }
 
     /**
@@ -331,8 +699,14 @@ public class GameOfLifeGUI extends JFrame {
         int newHeight = (Integer) heightSpinner.getValue();
 
         grid = new Grid(newWidth, newHeight);
+        toggleHeatmap();
+        if (multiState != null) {
+            multiState = new GenerationsGrid(grid.getHeight(), grid.getWidth(), multiState.getRule());
+        }
         generation = 0;
         generationLabel.setText("Generation: " + generation);
+        history.clear();
+        recordHistory();
         gridPanel.updateGrid();
         gridPanel.repaint();
         pack();
@@ -343,6 +717,7 @@ public class GameOfLifeGUI extends JFrame {
      */
     private class GridPanel extends JPanel {
         private int cellSize = DEFAULT_CELL_SIZE;
+        private final TiledRenderer renderer = new TiledRenderer(cellSize, this::repaint);
 
         public GridPanel() {
             updateGrid();
@@ -352,6 +727,13 @@ public class GameOfLifeGUI extends JFrame {
                 public void mousePressed(MouseEvent e) {
                     handleCellClick(e);
                 }
+
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    if (!running && multiState == null) {
+                        recordHistory();
+                    }
+                }
             });
 
             addMouseMotionListener(new MouseMotionAdapter() {
@@ -374,16 +756,24 @@ public class GameOfLifeGUI extends JFrame {
 
         /**
          * Handles mouse clicks to toggle cells.
+         * While running, the toggle is queued and lands between two generations.
          */
         private void handleCellClick(MouseEvent e) {
-            if (running) return; // Don't allow editing while running
-
             int col = e.getX() / cellSize;
             int row = e.getY() / cellSize;
 
             if (row >= 0 && row < grid.getHeight() && col >= 0 && col < grid.getWidth()) {
-                grid.toggleCell(row, col);
-                repaint();
+                if (multiState != null) {
+                    // The timer steps the multi-state board on this same thread, so edit it directly
+                    multiState.toggleCell(row, col);
+                    repaint();
+                    return;
+                }
+                edits.toggleCell(row, col);
+                if (!running) {
+                    edits.applyTo(grid);
+                    repaint();
+                }
             }
         }
 
@@ -395,15 +785,21 @@ public class GameOfLifeGUI extends JFrame {
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 
             // Draw cells
-            for (int row = 0; row < grid.getHeight(); row++) {
-                for (int col = 0; col < grid.getWidth(); col++) {
-                    Cell cell = grid.getCell(row, col);
-
-                    if (cell.isAlive()) {
-                        g2d.setColor(Color.BLACK);
-                        g2d.fillRect(col * cellSize, row * cellSize, cellSize, cellSize);
+            if (multiState != null) {
+                for (int row = 0; row < multiState.getHeight(); row++) {
+                    for (int col = 0; col < multiState.getWidth(); col++) {
+                        int state = multiState.getState(row, col);
+                        if (state != 0) {
+                            g2d.setColor(stateColors[state]);
+                            g2d.fillRect(col * cellSize, row * cellSize, cellSize, cellSize);
+                        }
                     }
                 }
+            } else {
+                Rectangle clip = g.getClipBounds();
+                Rectangle visible = getVisibleRect();
+                renderer.paint(g2d, grid, clip != null ? clip : visible, visible);
+                paintHeatmap(g2d);
             }
 
             // Draw grid lines
@@ -415,6 +811,23 @@ public class GameOfLifeGUI extends JFrame {
                 g2d.drawLine(col * cellSize, 0, col * cellSize, grid.getHeight() * cellSize);
             }
         }
+
+        /**
+         * Draws the activity heatmap translucently over the cells, one block of cells per heatmap pixel.
+         */
+        private void paintHeatmap(Graphics2D g2d) {
+            ActivityMap activity = grid.getActivityMap();
+            if (activity == null || activity.getGenerations() == 0) {
+                return;
+            }
+            int blockPixels = activity.getBlockSize() * cellSize;
+            Graphics2D overlay = (Graphics2D) g2d.create();
+            overlay.clipRect(0, 0, grid.getWidth() * cellSize, grid.getHeight() * cellSize);
+            overlay.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.45f));
+            overlay.drawImage(activity.toImage(ActivityMap.Measure.CHANGES), 0, 0,
+                    activity.getBlockCols() * blockPixels, activity.getBlockRows() * blockPixels, null);
+            overlay.dispose();
+        }
     }
 
     /**
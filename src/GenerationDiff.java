@@ -0,0 +1,187 @@
+import java.util.Arrays;
+
+/**
+ * The cells that changed between two generations, as runs of cells within a row.
+ * Each span is three ints: row, first column and length. A keyframe lists every live cell as a
+ * birth on an empty grid, so a receiver can start from it without any earlier diffs.
+ */
+public class GenerationDiff {
+    private final int generation;
+    private final boolean keyframe;
+    private final int height;
+    private final int width;
+    private final int[] births;
+    private final int[] deaths;
+
+    /**
+     * Creates a diff from prepared span arrays.
+     *
+     * @param generation the generation this diff leads to
+     * @param keyframe true if the births describe the whole grid
+     * @param height the height of the grid
+     * @param width the width of the grid
+     * @param births spans of cells that became alive, as (row, col, length) triples
+     * @param deaths spans of cells that died, as (row, col, length) triples
+     */
+    public GenerationDiff(int generation, boolean keyframe, int height, int width, int[] births, int[] deaths) {
+        this.generation = generation;
+        this.keyframe = keyframe;
+        this.height = height;
+        this.width = width;
+        this.births = births;
+        this.deaths = deaths;
+    }
+
+    /**
+     * Computes the diff between two states laid out like Grid.copyWords.
+     *
+     * @param generation the generation of the current state
+     * @param height the height of the grid
+     * @param width the width of the grid
+     * @param previous the words of the previous state
+     * @param current the words of the current state
+     * @return the births and deaths between the two states
+     */
+    public static GenerationDiff between(int generation, int height, int width, long[] previous, long[] current) {
+        int wordsPerRow = (width + 63) >>> 6;
+        SpanBuilder births = new SpanBuilder();
+        SpanBuilder deaths = new SpanBuilder();
+        for (int row = 0; row < height; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                int i = row * wordsPerRow + word;
+                if (previous[i] != current[i]) {
+                    births.addRuns(row, word, current[i] & ~previous[i]);
+                    deaths.addRuns(row, word, previous[i] & ~current[i]);
+                }
+            }
+        }
+        return new GenerationDiff(generation, false, height, width, births.toArray(), deaths.toArray());
+    }
+
+    /**
+     * Creates a keyframe holding every live cell of a state laid out like Grid.copyWords.
+     *
+     * @param generation the generation of the state
+     * @param height the height of the grid
+     * @param width the width of the grid
+     * @param current the words of the state
+     * @return the keyframe
+     */
+    public static GenerationDiff keyframe(int generation, int height, int width, long[] current) {
+        int wordsPerRow = (width + 63) >>> 6;
+        SpanBuilder births = new SpanBuilder();
+        for (int row = 0; row < height; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                births.addRuns(row, word, current[row * wordsPerRow + word]);
+            }
+        }
+        return new GenerationDiff(generation, true, height, width, births.toArray(), new int[0]);
+    }
+
+    /**
+     * Gets the generation this diff leads to.
+     *
+     * @return the generation number
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks if this diff describes the whole grid rather than the changes from the previous one.
+     *
+     * @return true for a keyframe
+     */
+    public boolean isKeyframe() {
+        return keyframe;
+    }
+
+    /**
+     * Gets the height of the grid this diff applies to.
+     *
+     * @return the height of the grid
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the width of the grid this diff applies to.
+     *
+     * @return the width of the grid
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the spans of cells that became alive.
+     *
+     * @return (row, col, length) triples
+     */
+    public int[] getBirths() {
+        return births;
+    }
+
+    /**
+     * Gets the spans of cells that died.
+     *
+     * @return (row, col, length) triples
+     */
+    public int[] getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * Applies this diff to a grid holding the previous generation.
+     * A keyframe clears the grid first, so it can be applied to any grid of the right size.
+     *
+     * @param grid the grid to update
+     */
+    public void applyTo(Grid grid) {
+        if (keyframe) {
+            grid.clear();
+        }
+        applySpans(grid, births, true);
+        applySpans(grid, deaths, false);
+    }
+
+    private static void applySpans(Grid grid, int[] spans, boolean alive) {
+        for (int i = 0; i < spans.length; i += 3) {
+            for (int col = spans[i + 1]; col < spans[i + 1] + spans[i + 2]; col++) {
+                grid.setCellState(spans[i], col, alive);
+            }
+        }
+    }
+
+    /**
+     * Collects runs of set bits as spans, joining runs that continue across a word boundary.
+     */
+    private static final class SpanBuilder {
+        private int[] spans = new int[48];
+        private int size;
+
+        void addRuns(int row, int word, long bits) {
+            while (bits != 0) {
+                int start = Long.numberOfTrailingZeros(bits);
+                int length = Long.numberOfTrailingZeros(~(bits >>> start));
+                int col = (word << 6) + start;
+                if (size > 0 && spans[size - 3] == row && spans[size - 2] + spans[size - 1] == col) {
+                    spans[size - 1] += length;
+                } else {
+                    if (size + 3 > spans.length) {
+                        spans = Arrays.copyOf(spans, spans.length * 2);
+                    }
+                    spans[size++] = row;
+                    spans[size++] = col;
+                    spans[size++] = length;
+                }
+                bits = start + length == 64 ? 0 : bits & (-1L << (start + length));
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(spans, size);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the states a grid goes through so they can be revisited.
+ * Every few frames a full keyframe is stored; the frames in between only store the words that
+ * changed since the previous frame, as XOR deltas. Any frame can be rebuilt from the keyframe
+ * before it plus at most keyframeInterval deltas, so seeking takes bounded time.
+ * When the memory budget is exceeded, the oldest keyframe and its deltas are evicted together.
+ */
+public class GenerationHistory {
+    private static final int FRAME_OVERHEAD = 48;  // object and array headers per frame, roughly
+    private static final int DELTA_ENTRY_BYTES = 12; // one int index plus one long XOR per changed word
+
+    private final int keyframeInterval;
+    private final long memoryBudget;
+    private final List<Frame> frames = new ArrayList<>();
+    private int firstIndex;  // frame index of frames.get(0)
+    private int position = -1; // frame index of the frame currently shown
+    private int height = -1;
+    private int width = -1;
+    private long[] newest;   // words of the newest frame, to compute the next delta
+    private long bytesUsed;
+
+    /**
+     * Creates a history with a keyframe every 32 frames and a 16 MB budget.
+     */
+    public GenerationHistory() {
+        this(32, 16L * 1024 * 1024);
+    }
+
+    /**
+     * Creates a history with a custom keyframe interval and memory budget.
+     *
+     * @param keyframeInterval the largest number of frames between two keyframes
+     * @param memoryBudget the approximate number of bytes the history may use
+     */
+    public GenerationHistory(int keyframeInterval, long memoryBudget) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1");
+        }
+        this.keyframeInterval = keyframeInterval;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Records the grid as a new frame after the current one.
+     * Frames after the current one (left over from stepping back) are discarded first.
+     * If the grid size changed, the history starts over.
+     *
+     * @param grid the grid to record
+     * @param generation the generation number shown for this frame
+     */
+    public void record(Grid grid, int generation) {
+        if (grid.getHeight() != height || grid.getWidth() != width) {
+            clear();
+            height = grid.getHeight();
+            width = grid.getWidth();
+        }
+        truncateAfterPosition();
+
+        long[] words = new long[height * grid.getWordsPerRow()];
+        grid.copyWords(words);
+
+        Frame frame;
+        if (frames.isEmpty() || framesSinceKeyframe() >= keyframeInterval - 1) {
+            frame = Frame.keyframe(generation, words.clone());
+        } else {
+            frame = Frame.delta(generation, newest, words);
+            if (frame.bytes() >= (long) words.length * 8) {
+                // Most of the grid changed, so a keyframe is no bigger
+                frame = Frame.keyframe(generation, words.clone());
+            }
+        }
+
+        frames.add(frame);
+        bytesUsed += frame.bytes();
+        newest = words;
+        position = firstIndex + frames.size() - 1;
+        evict();
+    }
+
+    /**
+     * Checks if there is an earlier frame to step back to.
+     *
+     * @return true if stepBack will succeed
+     */
+    public boolean canStepBack() {
+        return position > firstIndex;
+    }
+
+    /**
+     * Restores the frame before the current one onto the grid.
+     *
+     * @param grid the grid to restore into
+     * @return the generation number of the restored frame
+     */
+    public int stepBack(Grid grid) {
+        if (!canStepBack()) {
+            throw new IllegalStateException("No earlier frame in the history");
+        }
+        return seek(position - 1, grid);
+    }
+
+    /**
+     * Restores any retained frame onto the grid.
+     *
+     * @param index the frame index, between getOldestIndex() and getNewestIndex()
+     * @param grid the grid to restore into
+     * @return the generation number of the restored frame
+     */
+    public int seek(int index, Grid grid) {
+        if (index < firstIndex || index > getNewestIndex()) {
+            throw new IndexOutOfBoundsException("Frame " + index + " is not in the history");
+        }
+        if (grid.getHeight() != height || grid.getWidth() != width) {
+            throw new IllegalArgumentException("Grid size does not match the history");
+        }
+
+        int target = index - firstIndex;
+        int keyframe = target;
+        while (frames.get(keyframe).words == null) {
+            keyframe--;
+        }
+        long[] words = frames.get(keyframe).words.clone();
+        for (int i = keyframe + 1; i <= target; i++) {
+            frames.get(i).applyTo(words);
+        }
+
+        grid.setWords(words);
+        position = index;
+        return frames.get(target).generation;
+    }
+
+    /**
+     * Gets the index of the oldest frame still retained.
+     *
+     * @return the oldest frame index
+     */
+    public int getOldestIndex() {
+        return firstIndex;
+    }
+
+    /**
+     * Gets the index of the newest frame.
+     *
+     * @return the newest frame index, or getOldestIndex() - 1 if the history is empty
+     */
+    public int getNewestIndex() {
+        return firstIndex + frames.size() - 1;
+    }
+
+    /**
+     * Gets the index of the frame currently shown.
+     *
+     * @return the current frame index, or -1 if nothing has been recorded
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the approximate number of bytes used by the retained frames.
+     *
+     * @return the memory used by the history
+     */
+    public long getBytesUsed() {
+        return bytesUsed + (newest == null ? 0 : (long) newest.length * 8);
+    }
+
+    /**
+     * Discards every frame.
+     */
+    public void clear() {
+        frames.clear();
+        firstIndex = 0;
+        position = -1;
+        newest = null;
+        bytesUsed = 0;
+    }
+
+    /**
+     * Counts the frames recorded since the newest keyframe.
+     */
+    private int framesSinceKeyframe() {
+        int count = 0;
+        for (int i = frames.size() - 1; frames.get(i).words == null; i--) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Drops the frames after the current position, and rebuilds the newest state from what is left.
+     */
+    private void truncateAfterPosition() {
+        if (position < 0 || position == getNewestIndex()) {
+            return;
+        }
+        int keep = position - firstIndex + 1;
+        while (frames.size() > keep) {
+            bytesUsed -= frames.remove(frames.size() - 1).bytes();
+        }
+
+        int keyframe = frames.size() - 1;
+        while (frames.get(keyframe).words == null) {
+            keyframe--;
+        }
+        newest = frames.get(keyframe).words.clone();
+        for (int i = keyframe + 1; i < frames.size(); i++) {
+            frames.get(i).applyTo(newest);
+        }
+    }
+
+    /**
+     * Evicts the oldest keyframe and its deltas until the history fits in its budget.
+     * The segment holding the newest frame is always kept.
+     */
+    private void evict() {
+        while (getBytesUsed() > memoryBudget) {
+            int nextKeyframe = 1;
+            while (nextKeyframe < frames.size() && frames.get(nextKeyframe).words == null) {
+                nextKeyframe++;
+            }
+            if (nextKeyframe == frames.size()) {
+                return;
+            }
+            for (int i = 0; i < nextKeyframe; i++) {
+                bytesUsed -= frames.get(i).bytes();
+            }
+            frames.subList(0, nextKeyframe).clear();
+            firstIndex += nextKeyframe;
+            position = Math.max(position, firstIndex);
+        }
+    }
+
+    /**
+     * One recorded state: either a full keyframe or the changed words since the previous frame.
+     */
+    private static final class Frame {
+        private final int generation;
+        private final long[] words;    // keyframes only
+        private final int[] indices;   // deltas only: positions of the changed words
+        private final long[] changes;  // deltas only: XOR of the old and new word
+
+        private Frame(int generation, long[] words, int[] indices, long[] changes) {
+            this.generation = generation;
+            this.words = words;
+            this.indices = indices;
+            this.changes = changes;
+        }
+
+        static Frame keyframe(int generation, long[] words) {
+            return new Frame(generation, words, null, null);
+        }
+
+        static Frame delta(int generation, long[] previous, long[] current) {
+            int count = 0;
+            for (int i = 0; i < current.length; i++) {
+                if (previous[i] != current[i]) {
+                    count++;
+                }
+            }
+            int[] indices = new int[count];
+            long[] changes = new long[count];
+            int next = 0;
+            for (int i = 0; i < current.length; i++) {
+                long change = previous[i] ^ current[i];
+                if (change != 0) {
+                    indices[next] = i;
+                    changes[next] = change;
+                    next++;
+                }
+            }
+            return new Frame(generation, null, indices, changes);
+        }
+
+        /**
+         * Turns the previous frame's words into this frame's words.
+         */
+        void applyTo(long[] state) {
+            for (int i = 0; i < indices.length; i++) {
+                state[indices[i]] ^= changes[i];
+            }
+        }
+
+        long bytes() {
+            return FRAME_OVERHEAD + (words != null ? (long) words.length * 8 : (long) indices.length * DELTA_ENTRY_BYTES);
+        }
+    }
+}
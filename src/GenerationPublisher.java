@@ -0,0 +1,294 @@
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes a GenerationDiff for every generation of a grid to any number of subscribers.
+ * Call publish() after each step. The simulation thread only computes the diff and hands it to each
+ * subscription's queue; delivery happens on an executor, so a slow subscriber only affects itself.
+ * Every subscriber starts with a keyframe, and what happens when it falls behind is set by its
+ * BackpressurePolicy.
+ */
+public class GenerationPublisher implements Flow.Publisher<GenerationDiff>, AutoCloseable {
+
+    /**
+     * What to do when a subscriber's queue is full.
+     */
+    public enum BackpressurePolicy {
+        /** Throw away the queued diffs and send one keyframe of the newest generation instead. */
+        DROP_TO_KEYFRAME,
+        /** Make publish() wait until the subscriber catches up. This does slow the simulation. */
+        BLOCK,
+        /** Fail the subscription with an error once the queue overflows. */
+        BUFFER
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Executor executor;
+    private final List<GenerationSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long[] previous;
+    private int height = -1;
+    private int width = -1;
+
+    // Built at most once per publish, only if some subscriber needs it
+    private long[] current;
+    private int currentGeneration;
+    private GenerationDiff keyframe;
+
+    /**
+     * Creates a publisher that delivers on the common fork-join pool.
+     */
+    public GenerationPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a publisher that delivers on the given executor.
+     *
+     * @param executor the executor that runs subscriber callbacks
+     */
+    public GenerationPublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes with the DROP_TO_KEYFRAME policy and a queue of 16 diffs.
+     *
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GenerationDiff> subscriber) {
+        subscribe(subscriber, BackpressurePolicy.DROP_TO_KEYFRAME, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Subscribes with a chosen backpressure policy.
+     *
+     * @param subscriber the subscriber
+     * @param policy what to do when the subscriber falls behind
+     * @param capacity the number of diffs that may wait for the subscriber
+     */
+    public void subscribe(Flow.Subscriber<? super GenerationDiff> subscriber, BackpressurePolicy policy, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        GenerationSubscription subscription = new GenerationSubscription(subscriber, policy, capacity);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+    }
+
+    /**
+     * Gets the number of active subscriptions.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Publishes the grid's current generation to every subscriber.
+     * With no subscribers this returns without reading the grid.
+     *
+     * @param grid the grid after its latest step
+     * @param generation the generation number of the grid
+     */
+    public void publish(Grid grid, int generation) {
+        if (subscriptions.isEmpty()) {
+            previous = null;
+            return;
+        }
+
+        current = new long[grid.getHeight() * grid.getWordsPerRow()];
+        grid.copyWords(current);
+        currentGeneration = generation;
+        keyframe = null;
+
+        GenerationDiff diff = null;
+        if (previous != null && grid.getHeight() == height && grid.getWidth() == width) {
+            diff = GenerationDiff.between(generation, height, width, previous, current);
+        }
+        height = grid.getHeight();
+        width = grid.getWidth();
+
+        for (GenerationSubscription subscription : subscriptions) {
+            subscription.offer(diff);
+        }
+        previous = current;
+    }
+
+    /**
+     * Completes every subscription once its queued diffs are delivered.
+     */
+    @Override
+    public void close() {
+        for (GenerationSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Gets the keyframe of the generation being published, building it on first use.
+     */
+    private GenerationDiff currentKeyframe() {
+        if (keyframe == null) {
+            keyframe = GenerationDiff.keyframe(currentGeneration, height, width, current);
+        }
+        return keyframe;
+    }
+
+    /**
+     * One subscriber's queue and demand. The queue is guarded by the subscription's monitor;
+     * the drain loop runs on the executor and is never entered by two threads at once.
+     */
+    private final class GenerationSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super GenerationDiff> subscriber;
+        private final BackpressurePolicy policy;
+        private final int capacity;
+        private final ArrayDeque<GenerationDiff> queue = new ArrayDeque<>();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private long demand;
+        private boolean needsKeyframe = true;
+        private boolean cancelled;
+        private boolean completed;
+        private Throwable error;
+
+        GenerationSubscription(Flow.Subscriber<? super GenerationDiff> subscriber, BackpressurePolicy policy, int capacity) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Queues a diff, applying the backpressure policy if the queue is full.
+         * A null diff means the publisher has no previous state, so a keyframe is sent instead.
+         */
+        void offer(GenerationDiff diff) {
+            synchronized (this) {
+                if (cancelled || error != null) {
+                    return;
+                }
+                if (needsKeyframe || diff == null) {
+                    queue.clear();
+                    queue.add(currentKeyframe());
+                    needsKeyframe = false;
+                } else if (queue.size() < capacity) {
+                    queue.add(diff);
+                } else if (policy == BackpressurePolicy.DROP_TO_KEYFRAME) {
+                    queue.clear();
+                    queue.add(currentKeyframe());
+                } else if (policy == BackpressurePolicy.BLOCK) {
+                    while (queue.size() >= capacity && !cancelled) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    if (cancelled) {
+                        return;
+                    }
+                    queue.add(diff);
+                } else {
+                    queue.clear();
+                    error = new IllegalStateException("Subscriber fell more than " + capacity + " generations behind");
+                    subscriptions.remove(this);
+                }
+            }
+            drain();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested " + n + " items; must be positive");
+                    queue.clear();
+                    subscriptions.remove(this);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                queue.clear();
+                notifyAll();
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Schedules the drain loop unless it is already running.
+         */
+        private void drain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::drainLoop);
+            }
+        }
+
+        /**
+         * Delivers queued diffs while there is demand, then any terminal signal.
+         */
+        private void drainLoop() {
+            do {
+                while (true) {
+                    GenerationDiff next;
+                    Throwable failure = null;
+                    boolean finished = false;
+                    synchronized (this) {
+                        if (cancelled) {
+                            break;
+                        }
+                        if (error != null) {
+                            failure = error;
+                            cancelled = true;
+                            next = null;
+                        } else if (queue.isEmpty()) {
+                            if (!completed) {
+                                break;
+                            }
+                            finished = true;
+                            cancelled = true;
+                            next = null;
+                        } else if (demand == 0) {
+                            break;
+                        } else {
+                            next = queue.poll();
+                            demand--;
+                            notifyAll();
+                        }
+                    }
+
+                    if (failure != null) {
+                        subscriber.onError(failure);
+                        break;
+                    }
+                    if (finished) {
+                        subscriber.onComplete();
+                        break;
+                    }
+                    subscriber.onNext(next);
+                }
+            } while (pendingDrains.decrementAndGet() != 0);
+        }
+    }
+}
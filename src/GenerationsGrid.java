@@ -0,0 +1,263 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A grid for Generations rules, where each cell holds one of several states.
+ * States are packed into 64-bit words: 2 bits per cell for up to 4 states, 4 bits for up to 16.
+ * Each step counts alive neighbors from a padded byte plane and looks the next state up in the
+ * rule's transition table, so the cost per cell is the same whatever the rule.
+ * Cells outside the grid are treated as dead, like in Grid.
+ */
+public class GenerationsGrid {
+    private final GenerationsRule rule;
+    private final byte[] table;
+    private final int height;
+    private final int width;
+    private final int bitsPerCell;
+    private final int cellsPerWord;
+    private final long stateMask;
+    private final int wordsPerRow;
+    private final byte[] alive; // padded (height + 2) x (width + 2) plane of alive cells, rebuilt each step
+    private long[][] rows;
+    private long[][] next;
+
+    /**
+     * Creates an empty grid for a rule.
+     *
+     * @param height the height of the grid
+     * @param width the width of the grid
+     * @param rule the rule to run
+     */
+    public GenerationsGrid(int height, int width, GenerationsRule rule) {
+        this.rule = rule;
+        this.table = rule.transitionTable();
+        this.height = height;
+        this.width = width;
+        this.bitsPerCell = rule.getStates() <= 4 ? 2 : 4;
+        this.cellsPerWord = 64 / bitsPerCell;
+        this.stateMask = (1L << bitsPerCell) - 1;
+        this.wordsPerRow = (width + cellsPerWord - 1) / cellsPerWord;
+        this.alive = new byte[(height + 2) * (width + 2)];
+        this.rows = new long[height][wordsPerRow];
+        this.next = new long[height][wordsPerRow];
+    }
+
+    /**
+     * Gets the rule this grid runs.
+     *
+     * @return the rule
+     */
+    public GenerationsRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Gets the height (number of rows) of the grid.
+     *
+     * @return the height of the grid
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the width (number of columns) of the grid.
+     *
+     * @return the width of the grid
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Estimates the heap memory this grid uses: the current and next packed rows,
+     * the alive-neighbor plane and the transition table.
+     *
+     * @return the footprint in bytes
+     */
+    public long getMemoryFootprint() {
+        return MemoryLayout.object(5 * MemoryLayout.REFERENCE_BYTES + 5 * 4 + 8)
+                + 2 * MemoryLayout.longMatrix(height, wordsPerRow)
+                + MemoryLayout.array(alive.length, 1)
+                + MemoryLayout.array(table.length, 1);
+    }
+
+    /**
+     * Checks if a position is within the grid boundaries.
+     */
+    private boolean isValidLocation(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+    /**
+     * Gets the state of a cell.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the cell's state (0 dead, 1 alive, 2 and up decaying), or 0 outside the grid
+     */
+    public int getState(int row, int col) {
+        if (!isValidLocation(row, col)) {
+            return 0;
+        }
+        int shift = (col % cellsPerWord) * bitsPerCell;
+        return (int) (rows[row][col / cellsPerWord] >>> shift & stateMask);
+    }
+
+    /**
+     * Sets the state of a cell. Does nothing if the position is outside the grid.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @param state the new state, from 0 to the rule's state count - 1
+     */
+    public void setState(int row, int col, int state) {
+        if (state < 0 || state >= rule.getStates()) {
+            throw new IllegalArgumentException("State " + state + " is not valid for " + rule);
+        }
+        if (isValidLocation(row, col)) {
+            int shift = (col % cellsPerWord) * bitsPerCell;
+            long[] words = rows[row];
+            int word = col / cellsPerWord;
+            words[word] = words[word] & ~(stateMask << shift) | (long) state << shift;
+        }
+    }
+
+    /**
+     * Toggles a cell between dead and alive; a decaying cell becomes dead.
+     *
+     * @param row the row index
+     * @param col the column index
+     */
+    public void toggleCell(int row, int col) {
+        setState(row, col, getState(row, col) == 0 ? 1 : 0);
+    }
+
+    /**
+     * Places a pattern's live cells as alive and the rest of its bounding box as dead,
+     * including the cells past the end of a short row.
+     * Only cells within the grid boundaries will be placed.
+     *
+     * @param pattern the pattern to place
+     * @param startRow the top-left row position
+     * @param startCol the top-left column position
+     */
+    public void placePattern(Pattern pattern, int startRow, int startCol) {
+        boolean[][] shape = pattern.getPattern();
+        int width = pattern.getWidth();
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < width; col++) {
+                setState(startRow + row, startCol + col, col < shape[row].length && shape[row][col] ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Copies the live cells of a two-state grid in as alive cells.
+     *
+     * @param grid the grid to copy, of the same size
+     */
+    public void loadFrom(Grid grid) {
+        clear();
+        grid.liveCells().forEach(cell -> setState(Grid.cellRow(cell), Grid.cellCol(cell), 1));
+    }
+
+    /**
+     * Copies the alive cells (state 1) out to a two-state grid.
+     *
+     * @param grid the grid to overwrite, of the same size
+     */
+    public void storeTo(Grid grid) {
+        grid.clear();
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (getState(row, col) == 1) {
+                    grid.setCellState(row, col, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the grid by setting all cells to dead.
+     */
+    public void clear() {
+        for (long[] words : rows) {
+            Arrays.fill(words, 0L);
+        }
+    }
+
+    /**
+     * Randomizes the grid: each cell is alive with the given probability, otherwise dead.
+     *
+     * @param prob the probability (0.0 to 1.0) that each cell will be alive
+     * @param seed the seed for the random generator
+     */
+    public void randomize(double prob, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                setState(row, col, rand.nextDouble() <= prob ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Counts the cells in state 1.
+     *
+     * @return the number of alive cells
+     */
+    public int getPopulation() {
+        int population = 0;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (getState(row, col) == 1) {
+                    population++;
+                }
+            }
+        }
+        return population;
+    }
+
+    /**
+     * Advances the grid to the next generation using the rule's transition table.
+     */
+    public void nextGeneration() {
+        int stride = width + 2;
+
+        // Unpack which cells are alive into the padded plane; the border stays 0
+        for (int row = 0; row < height; row++) {
+            long[] words = rows[row];
+            int base = (row + 1) * stride + 1;
+            for (int col = 0; col < width; col++) {
+                long state = words[col / cellsPerWord] >>> ((col % cellsPerWord) * bitsPerCell) & stateMask;
+                alive[base + col] = (byte) (state == 1 ? 1 : 0);
+            }
+        }
+
+        for (int row = 0; row < height; row++) {
+            long[] words = rows[row];
+            long[] out = next[row];
+            int center = (row + 1) * stride + 1;
+            for (int word = 0; word < wordsPerRow; word++) {
+                long current = words[word];
+                long result = 0;
+                int firstCol = word * cellsPerWord;
+                int lastCol = Math.min(width, firstCol + cellsPerWord);
+                for (int col = firstCol, shift = 0; col < lastCol; col++, shift += bitsPerCell) {
+                    int i = center + col;
+                    int count = alive[i - stride - 1] + alive[i - stride] + alive[i - stride + 1]
+                            + alive[i - 1] + alive[i + 1]
+                            + alive[i + stride - 1] + alive[i + stride] + alive[i + stride + 1];
+                    int state = (int) (current >>> shift & stateMask);
+                    result |= (long) table[state * 9 + count] << shift;
+                }
+                out[word] = result;
+            }
+        }
+
+        long[][] swap = rows;
+        rows = next;
+        next = swap;
+    }
+}
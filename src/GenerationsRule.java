@@ -0,0 +1,153 @@
+/**
+ * A rule from the "Generations" family, where dying cells fade through extra states before they are gone.
+ * State 0 is dead and state 1 is alive; only alive cells count as neighbors. A dead cell is born with
+ * a birth count of alive neighbors, an alive cell survives with a survival count, and any other alive
+ * cell starts decaying: it moves through states 2, 3, ... one step per generation and then dies.
+ * With 2 states this is an ordinary Life-like rule.
+ */
+public class GenerationsRule {
+    private final String name;
+    private final int birth;    // bit n set: born with n alive neighbors
+    private final int survival; // bit n set: survives with n alive neighbors
+    private final int states;
+
+    /**
+     * Creates a rule from neighbor-count masks.
+     *
+     * @param name the name of the rule
+     * @param birth bit n set means a dead cell with n alive neighbors is born
+     * @param survival bit n set means an alive cell with n alive neighbors survives
+     * @param states the number of states, including dead and alive (2 to 16)
+     */
+    public GenerationsRule(String name, int birth, int survival, int states) {
+        if (states < 2 || states > 16) {
+            throw new IllegalArgumentException("Generations rules need 2 to 16 states, got " + states);
+        }
+        this.name = name;
+        this.birth = birth & 0x1FF;
+        this.survival = survival & 0x1FF;
+        this.states = states;
+    }
+
+    /**
+     * Parses a rule written as "B2/S/C3" (birth, survival, states) or in the older
+     * "survival/birth/states" form such as "345/2/4".
+     *
+     * @param rule the rule string
+     * @return the parsed rule, named by the string itself
+     */
+    public static GenerationsRule parse(String rule) {
+        String[] parts = rule.trim().toUpperCase().split("/", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected three parts in rule: " + rule);
+        }
+        String birthPart;
+        String survivalPart;
+        String statesPart;
+        if (parts[0].startsWith("B")) {
+            birthPart = parts[0].substring(1);
+            survivalPart = parts[1].replace("S", "");
+            statesPart = parts[2].replace("C", "").replace("G", "");
+        } else {
+            survivalPart = parts[0];
+            birthPart = parts[1];
+            statesPart = parts[2];
+        }
+        try {
+            return new GenerationsRule(rule.trim(), countMask(birthPart), countMask(survivalPart), Integer.parseInt(statesPart));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad state count in rule: " + rule, e);
+        }
+    }
+
+    private static int countMask(String digits) {
+        int mask = 0;
+        for (char c : digits.toCharArray()) {
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Bad neighbor count '" + c + "'");
+            }
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+
+    // ============================ Known Rules ============================
+
+    /**
+     * Conway's Life as a 2-state Generations rule.
+     */
+    public static GenerationsRule conway() {
+        return new GenerationsRule("Conway's Life", 1 << 3, 1 << 2 | 1 << 3, 2);
+    }
+
+    /**
+     * Brian's Brain (B2/S/C3): every alive cell decays immediately, producing fast-moving sparks.
+     */
+    public static GenerationsRule briansBrain() {
+        return new GenerationsRule("Brian's Brain", 1 << 2, 0, 3);
+    }
+
+    /**
+     * Star Wars (B2/S345/C4).
+     */
+    public static GenerationsRule starWars() {
+        return new GenerationsRule("Star Wars", 1 << 2, 1 << 3 | 1 << 4 | 1 << 5, 4);
+    }
+
+    /**
+     * Gets the name of this rule.
+     *
+     * @return the rule's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of states, including dead and alive.
+     *
+     * @return the state count
+     */
+    public int getStates() {
+        return states;
+    }
+
+    /**
+     * Builds the transition table: entry state * 9 + aliveNeighbors holds the next state.
+     *
+     * @return the table, 9 entries per state
+     */
+    public byte[] transitionTable() {
+        byte[] table = new byte[states * 9];
+        for (int count = 0; count <= 8; count++) {
+            table[count] = (byte) ((birth >>> count & 1) != 0 ? 1 : 0);
+            table[9 + count] = (byte) ((survival >>> count & 1) != 0 ? 1 : (states > 2 ? 2 : 0));
+            for (int state = 2; state < states; state++) {
+                table[state * 9 + count] = (byte) (state + 1 < states ? state + 1 : 0);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the rule in "B/S/C" notation.
+     *
+     * @return the rule string, such as "B2/S/C3"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("B");
+        for (int count = 0; count <= 8; count++) {
+            if ((birth >>> count & 1) != 0) {
+                text.append(count);
+            }
+        }
+        text.append("/S");
+        for (int count = 0; count <= 8; count++) {
+            if ((survival >>> count & 1) != 0) {
+                text.append(count);
+            }
+        }
+        return text.append("/C").append(states).toString();
+    }
+}
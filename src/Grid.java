@@ -1,13 +1,34 @@
-import java.util.Random;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents the grid for Conway's Game of Life.
- * Manages the 2D array of cells and implements the game rules.
+ * Manages the cells as bit-packed rows and implements the game rules.
+ * Cell (row, col) is bit (col % 64) of word (col / 64) in its row.
  */
 public class Grid {
-    private Cell[][] cells;
+    public static final int TILE_SIZE = 64; // rows and columns per tile, so a tile row is one word
+    private static final int DENSITY_BITS = 16; // precision of the density used by randomize
+
+    private long[][] rows;
     private int height;
     private int width;
+    private int wordsPerRow;
+    private long lastWordMask; // valid bits of the last word in each row
+    private long[] tileVersions; // per tile, row-major; bumped whenever a cell in the tile changes
+    private boolean[] rowShared; // rows that a snapshot may also hold, copied before they are written; null until the first snapshot
+                                 // set until the row is written or the grid steps, even after the snapshot is gone
+    private boolean anyShared;
+    private ActivityMap activity; // counts live and changed cells per block each step, or null
 
     /**
      * Constructor for a new grid with size parameters
@@ -17,8 +38,10 @@ public class Grid {
     public Grid(int height, int width) {
         this.height = height;
         this.width = width;
-        this.cells = new Cell[height][width];
-        initCells();
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.lastWordMask = (width & 63) == 0 ? -1L : (1L << (width & 63)) - 1;
+        this.rows = new long[height][wordsPerRow];
+        this.tileVersions = new long[((height + TILE_SIZE - 1) / TILE_SIZE) * wordsPerRow];
     }
 
     /**
@@ -29,25 +52,88 @@ public class Grid {
     }
 
     /**
-     * Private method that initializes blank cells for grid
+     * Creates an independent copy of this grid.
+     *
+     * @return a new grid with the same size and cells
      */
-    private void initCells() {
+    public Grid copy() {
+        Grid copy = new Grid(height, width);
         for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                cells[row][col] = new Cell();
-            }
+            System.arraycopy(rows[row], 0, copy.rows[row], 0, wordsPerRow);
+        }
+        return copy;
+    }
+
+    /**
+     * Takes a copy-on-write snapshot of this grid.
+     * The snapshot shares every row with this grid, so taking one only copies the list of rows.
+     * Afterwards, whichever of the two grids writes to a shared row first copies that row, so neither
+     * ever sees the other's changes. A step gives the grid all-new rows and so copies nothing.
+     * A snapshot handed to another thread can be read there while this grid keeps stepping.
+     * Sharing is tracked per row and is not undone when the snapshot is dropped, so until the next
+     * step, the first edit to each row copies the whole row even if no snapshot holds it any more.
+     *
+     * @return a grid frozen at the current state until it is itself changed
+     */
+    public Grid snapshot() {
+        if (rowShared == null) {
+            rowShared = new boolean[height];
+        }
+        Arrays.fill(rowShared, true);
+        anyShared = true;
+        return new Grid(this);
+    }
+
+    /**
+     * Creates a snapshot of a grid that shares all of its rows.
+     */
+    private Grid(Grid source) {
+        this.height = source.height;
+        this.width = source.width;
+        this.wordsPerRow = source.wordsPerRow;
+        this.lastWordMask = source.lastWordMask;
+        this.rows = source.rows.clone();
+        this.tileVersions = source.tileVersions.clone();
+        this.rowShared = new boolean[height];
+        Arrays.fill(rowShared, true);
+        this.anyShared = true;
+    }
+
+    /**
+     * Gets a row to write to, first copying it if a snapshot shares it.
+     */
+    private long[] writableRow(int row) {
+        if (anyShared && rowShared[row]) {
+            rows[row] = rows[row].clone();
+            rowShared[row] = false;
         }
+        return rows[row];
     }
 
     /**
      * Gets the cell at the specified position.
+     * The cell is a live view of the grid: changing it changes the grid.
      *
      * @param row the row index
      * @param col the column index
      * @return the cell at the specified position
      */
     public Cell getCell(int row, int col) {
-        return cells[row][col];
+        if (!isValidLocation(row, col)) {
+            throw new ArrayIndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the grid");
+        }
+        return new CellView(row, col);
+    }
+
+    /**
+     * Checks if the cell at the specified position is alive.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return true if the cell is alive, false if dead or outside the grid
+     */
+    public boolean isAlive(int row, int col) {
+        return isValidLocation(row, col) && (rows[row][col >>> 6] >>> col & 1L) != 0;
     }
 
     /**
@@ -68,6 +154,286 @@ public class Grid {
         return width;
     }
 
+    /**
+     * Gets the number of 64-bit words used to store each row.
+     *
+     * @return the words per row
+     */
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Copies the whole grid into a flat array of words, one row after another.
+     *
+     * @param dest the array to fill, at least height * getWordsPerRow() long
+     */
+    public void copyWords(long[] dest) {
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(rows[row], 0, dest, row * wordsPerRow, wordsPerRow);
+        }
+    }
+
+    /**
+     * Replaces the whole grid with a flat array of words laid out like copyWords.
+     * Bits past the last column are ignored.
+     *
+     * @param src the words to copy in, at least height * getWordsPerRow() long
+     */
+    public void setWords(long[] src) {
+        for (int row = 0; row < height; row++) {
+            long[] words = rows[row];
+            int base = row * wordsPerRow;
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = word == wordsPerRow - 1 ? src[base + word] & lastWordMask : src[base + word];
+                if (bits != words[word]) {
+                    words = writableRow(row);
+                    words[word] = bits;
+                    touchTile(row, word);
+                }
+            }
+        }
+    }
+
+    // ============================ Tiles ============================
+
+    /**
+     * Gets the number of tile rows; tiles are TILE_SIZE cells on a side, the last ones possibly smaller.
+     *
+     * @return the number of tiles down the grid
+     */
+    public int getTileRows() {
+        return (height + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    /**
+     * Gets the number of tile columns.
+     *
+     * @return the number of tiles across the grid
+     */
+    public int getTileCols() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Gets a tile's version, which changes whenever any of its cells changes.
+     * A renderer can keep what it drew for a tile until the version moves on.
+     *
+     * @param tileRow the tile row index
+     * @param tileCol the tile column index
+     * @return the tile's version
+     */
+    public long getTileVersion(int tileRow, int tileCol) {
+        return tileVersions[tileRow * wordsPerRow + tileCol];
+    }
+
+    private void touchTile(int row, int word) {
+        tileVersions[(row / TILE_SIZE) * wordsPerRow + word]++;
+    }
+
+    private void touchAllTiles() {
+        for (int i = 0; i < tileVersions.length; i++) {
+            tileVersions[i]++;
+        }
+    }
+
+    /**
+     * Estimates the heap memory this grid uses: the grid object and its packed rows, one bit per cell
+     * plus array headers. A step briefly needs the same again for the next generation's rows.
+     *
+     * @return the footprint in bytes
+     */
+    public long getMemoryFootprint() {
+        return MemoryLayout.object(4 * MemoryLayout.REFERENCE_BYTES + 3 * 4 + 8 + 1)
+                + MemoryLayout.longMatrix(height, wordsPerRow)
+                + MemoryLayout.array(tileVersions.length, 8)
+                + (rowShared == null ? 0 : MemoryLayout.array(height, 1));
+    }
+
+    // ============================ Activity ============================
+
+    /**
+     * Attaches an activity map that every later step adds to, or detaches it.
+     * Only steps are counted, not edits. Copies and snapshots do not share the map.
+     *
+     * @param activity a map for grids of this size, or null to stop counting
+     */
+    public void setActivityMap(ActivityMap activity) {
+        if (activity != null && (activity.getHeight() != height || activity.getWidth() != width)) {
+            throw new IllegalArgumentException("Activity map is " + activity.getHeight() + "x" + activity.getWidth()
+                    + " but the grid is " + height + "x" + width);
+        }
+        this.activity = activity;
+    }
+
+    /**
+     * Gets the attached activity map.
+     *
+     * @return the map, or null if activity is not being counted
+     */
+    public ActivityMap getActivityMap() {
+        return activity;
+    }
+
+    // ============================ Bulk Reads ============================
+
+    /**
+     * Packs a cell position into one long, as used by liveCells().
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the row in the high 32 bits and the column in the low 32 bits
+     */
+    public static long packCell(int row, int col) {
+        return (long) row << 32 | col & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Gets the row of a packed cell position.
+     *
+     * @param cell a position from packCell or liveCells
+     * @return the row index
+     */
+    public static int cellRow(long cell) {
+        return (int) (cell >>> 32);
+    }
+
+    /**
+     * Gets the column of a packed cell position.
+     *
+     * @param cell a position from packCell or liveCells
+     * @return the column index
+     */
+    public static int cellCol(long cell) {
+        return (int) cell;
+    }
+
+    /**
+     * Iterates over the live cells in row order without allocating per cell.
+     * Empty words are skipped 64 cells at a time, so sparse grids are fast to scan.
+     * The grid must not change while iterating.
+     *
+     * @return an iterator of packed cell positions (see packCell)
+     */
+    public PrimitiveIterator.OfLong liveCellIterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int row = 0;
+            private int word = -1;
+            private long bits = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (bits == 0) {
+                    if (++word == wordsPerRow) {
+                        word = 0;
+                        row++;
+                    }
+                    if (row >= height) {
+                        return false;
+                    }
+                    bits = rows[row][word];
+                }
+                return true;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int col = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                return packCell(row, col);
+            }
+        };
+    }
+
+    /**
+     * Streams the live cells in row order.
+     *
+     * @return a stream of packed cell positions (see packCell)
+     */
+    public LongStream liveCells() {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(liveCellIterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Counts the live cells on the grid.
+     *
+     * @return the number of live cells
+     */
+    public int getPopulation() {
+        int population = 0;
+        for (long[] words : rows) {
+            for (long word : words) {
+                population += Long.bitCount(word);
+            }
+        }
+        return population;
+    }
+
+    /**
+     * Gets a read-only view of one row's words, 64 cells per word.
+     * The view is not copied, so it is only valid until the grid next changes.
+     *
+     * @param row the row index
+     * @return a buffer of getWordsPerRow() words
+     */
+    public LongBuffer getRowView(int row) {
+        return LongBuffer.wrap(rows[row]).asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies a rectangular region of the grid into a caller-supplied array.
+     * Each region row starts on a fresh word, with the region's left column in bit 0.
+     * Cells outside the grid are copied as dead. An empty region copies nothing.
+     *
+     * @param top the first row of the region
+     * @param left the first column of the region
+     * @param regionHeight the number of rows in the region
+     * @param regionWidth the number of columns in the region
+     * @param dest the array to fill, at least regionHeight * ((regionWidth + 63) / 64) long
+     * @return the number of words used per region row
+     */
+    public int copyRegion(int top, int left, int regionHeight, int regionWidth, long[] dest) {
+        if (regionHeight < 0 || regionWidth < 0) {
+            throw new IllegalArgumentException("Region size " + regionHeight + "x" + regionWidth + " is negative");
+        }
+        if (regionHeight == 0 || regionWidth == 0) {
+            return (regionWidth + 63) >>> 6;
+        }
+        int regionWords = (regionWidth + 63) >>> 6;
+        long lastMask = (regionWidth & 63) == 0 ? -1L : (1L << (regionWidth & 63)) - 1;
+        for (int r = 0; r < regionHeight; r++) {
+            int row = top + r;
+            int base = r * regionWords;
+            if (row < 0 || row >= height) {
+                Arrays.fill(dest, base, base + regionWords, 0L);
+                continue;
+            }
+            for (int word = 0; word < regionWords; word++) {
+                dest[base + word] = bitsAt(rows[row], left + (word << 6));
+            }
+            dest[base + regionWords - 1] &= lastMask;
+        }
+        return regionWords;
+    }
+
+    /**
+     * Reads 64 cells of a row starting at any column; columns outside the row read as dead.
+     */
+    private static long bitsAt(long[] words, int col) {
+        int word = Math.floorDiv(col, 64);
+        int shift = Math.floorMod(col, 64);
+        long low = word >= 0 && word < words.length ? words[word] : 0L;
+        if (shift == 0) {
+            return low;
+        }
+        long high = word + 1 >= 0 && word + 1 < words.length ? words[word + 1] : 0L;
+        return low >>> shift | high << (64 - shift);
+    }
+
     /**
      * Checks if a position is within the grid boundaries.
      *
@@ -89,7 +455,12 @@ public class Grid {
      */
     public void setCellState(int row, int col, boolean alive) {
         if (isValidLocation(row, col)) {
-            cells[row][col].setAlive(alive);
+            if (alive) {
+                writableRow(row)[col >>> 6] |= 1L << col;
+            } else {
+                writableRow(row)[col >>> 6] &= ~(1L << col);
+            }
+            touchTile(row, col >>> 6);
         }
     }
 
@@ -103,7 +474,131 @@ public class Grid {
      */
     public void toggleCell(int row, int col) {
         if (isValidLocation(row, col)) {
-            cells[row][col].toggle();
+            writableRow(row)[col >>> 6] ^= 1L << col;
+            touchTile(row, col >>> 6);
+        }
+    }
+
+    /**
+     * Combines a packed pattern with the grid, a word at a time.
+     * The pattern is clipped to the grid once, so each row is a few word operations
+     * rather than a bounds check per cell.
+     *
+     * @param pattern the packed pattern to blit
+     * @param startRow the top-left row position of the pattern
+     * @param startCol the top-left column position of the pattern
+     * @param mode how the pattern's cells combine with the grid's cells
+     */
+    public void blit(PackedPattern pattern, int startRow, int startCol, BlitMode mode) {
+        int firstRow = Math.max(0, startRow);
+        int endRow = Math.min(height, startRow + pattern.getHeight());
+        int firstCol = Math.max(0, startCol);
+        int endCol = Math.min(width, startCol + pattern.getWidth());
+        if (firstRow >= endRow || firstCol >= endCol) {
+            return;
+        }
+
+        for (int row = firstRow; row < endRow; row++) {
+            blitRow(writableRow(row), row, pattern, startRow, startCol, firstCol, endCol, mode);
+        }
+    }
+
+    /**
+     * Blits many patterns in one pass over the rows they cover.
+     * Each destination row is fetched once and every placement that covers it is applied there
+     * in list order, so the result is the same as blitting them one after another.
+     *
+     * @param placements the patterns and positions to blit
+     */
+    public void blitAll(List<PackedPattern.Placement> placements) {
+        int count = placements.size();
+        int[] firstRows = new int[count];
+        int[] endRows = new int[count];
+        int[] firstCols = new int[count];
+        int[] endCols = new int[count];
+        int[] startsAt = new int[height + 1]; // placements starting in each row, then bucket offsets
+        for (int i = 0; i < count; i++) {
+            PackedPattern.Placement placement = placements.get(i);
+            firstRows[i] = Math.max(0, placement.getRow());
+            endRows[i] = Math.min(height, placement.getRow() + placement.getPattern().getHeight());
+            firstCols[i] = Math.max(0, placement.getCol());
+            endCols[i] = Math.min(width, placement.getCol() + placement.getPattern().getWidth());
+            if (firstRows[i] < endRows[i] && firstCols[i] < endCols[i]) {
+                startsAt[firstRows[i] + 1]++;
+            }
+        }
+
+        // Bucket the visible placements by first row, keeping list order within a bucket
+        for (int row = 0; row < height; row++) {
+            startsAt[row + 1] += startsAt[row];
+        }
+        int[] byFirstRow = new int[startsAt[height]];
+        int[] fill = startsAt.clone();
+        for (int i = 0; i < count; i++) {
+            if (firstRows[i] < endRows[i] && firstCols[i] < endCols[i]) {
+                byFirstRow[fill[firstRows[i]]++] = i;
+            }
+        }
+
+        // Sweep down the rows with the placements covering each row, sorted by list position
+        int[] active = new int[byFirstRow.length];
+        int activeCount = 0;
+        for (int row = 0; row < height; row++) {
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                if (endRows[active[a]] > row) {
+                    active[kept++] = active[a];
+                }
+            }
+            activeCount = kept;
+            for (int b = startsAt[row]; b < startsAt[row + 1]; b++) {
+                int i = byFirstRow[b];
+                int at = Arrays.binarySearch(active, 0, activeCount, i);
+                at = -at - 1;
+                System.arraycopy(active, at, active, at + 1, activeCount - at);
+                active[at] = i;
+                activeCount++;
+            }
+            if (activeCount == 0) {
+                continue;
+            }
+
+            long[] words = writableRow(row);
+            for (int a = 0; a < activeCount; a++) {
+                PackedPattern.Placement placement = placements.get(active[a]);
+                blitRow(words, row, placement.getPattern(), placement.getRow(), placement.getCol(),
+                        firstCols[active[a]], endCols[active[a]], placement.getMode());
+            }
+        }
+    }
+
+    /**
+     * Combines one row of a pattern, already clipped to columns firstCol..endCol - 1, with a grid row.
+     */
+    private void blitRow(long[] words, int row, PackedPattern pattern, int startRow, int startCol,
+                         int firstCol, int endCol, BlitMode mode) {
+        int lastWord = (endCol - 1) >>> 6;
+        for (int word = firstCol >>> 6; word <= lastWord; word++) {
+            int low = Math.max(firstCol - (word << 6), 0);
+            int high = Math.min(endCol - (word << 6), 64);
+            long mask = (high == 64 ? -1L : (1L << high) - 1) & (-1L << low);
+            long bits = pattern.getBits(row - startRow, (word << 6) - startCol) & mask;
+
+            switch (mode) {
+                case OR:
+                    words[word] |= bits;
+                    break;
+                case XOR:
+                    words[word] ^= bits;
+                    break;
+                case AND_NOT:
+                    words[word] &= ~bits;
+                    break;
+                case REPLACE:
+                    words[word] = words[word] & ~mask | bits;
+                    break;
+            }
+            touchTile(row, word);
         }
     }
 
@@ -131,7 +626,7 @@ public class Grid {
                     int neighborRow = row + i;
                     int neighborCol = col + j;
 
-                    if (isValidLocation(neighborRow, neighborCol) && cells[neighborRow][neighborCol].isAlive()) {
+                    if (isAlive(neighborRow, neighborCol)) {
                         count++;
                     }
                 }
@@ -148,11 +643,11 @@ public class Grid {
      * 3. All other cells die or stay dead
      */
     public void nextGeneration() {
-        Cell[][] nextGrd = new Cell[height][width];
+        long[][] nextGrd = new long[height][wordsPerRow];
 
         for (int row = 0; row < height; row++) {
             for (int col = 0; col < width; col++) {
-                boolean isAlive = cells[row][col].isAlive();
+                boolean isAlive = isAlive(row, col);
                 boolean nextState;
                 int aliveNeighbors = countAliveNeighbors(row, col);
 
@@ -164,11 +659,28 @@ public class Grid {
                     nextState = aliveNeighbors == 3;
                 }
 
-                nextGrd[row][col] = new Cell(nextState);
+                if (nextState) {
+                    nextGrd[row][col >>> 6] |= 1L << col;
+                }
             }
         }
 
-        this.cells = nextGrd;
+        // Bump the tiles whose words changed
+        for (int row = 0; row < height; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                if (nextGrd[row][word] != rows[row][word]) {
+                    touchTile(row, word);
+                }
+            }
+        }
+        if (activity != null) {
+            activity.record(rows, nextGrd);
+        }
+        this.rows = nextGrd;
+        if (anyShared) {
+            Arrays.fill(rowShared, false);
+            anyShared = false;
+        }
     }
 
     /**
@@ -178,12 +690,54 @@ public class Grid {
      * @param prob the probability (0.0 to 1.0) that each cell will be alive
      */
     public void randomize(double prob) {
-        Random rand = new Random();
+        randomize(prob, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Randomizes the grid with a specified probability from a seed.
+     * The same seed always gives the same board, however many threads fill it.
+     *
+     * @param prob the probability (0.0 to 1.0) that each cell will be alive
+     * @param seed the seed for the random generator
+     */
+    public void randomize(double prob, long seed) {
+        // Each row gets its own generator, split off in row order before any row is filled
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rowRandoms = new SplittableRandom[height];
         for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                cells[row][col].setAlive(rand.nextDouble() <= prob);
+            rowRandoms[row] = root.split();
+        }
+
+        int fraction = (int) Math.round(Math.max(0.0, Math.min(1.0, prob)) * (1 << DENSITY_BITS));
+        IntStream.range(0, height).parallel().forEach(row -> {
+            SplittableRandom rand = rowRandoms[row];
+            long[] words = writableRow(row);
+            for (int word = 0; word < wordsPerRow; word++) {
+                words[word] = randomWord(rand, fraction);
             }
+            words[wordsPerRow - 1] &= lastWordMask;
+        });
+        touchAllTiles();
+    }
+
+    /**
+     * Generates 64 random cells at once, each alive with probability fraction / 2^DENSITY_BITS.
+     * Working from the lowest set bit of the fraction up, each bit ORs (bit 1) or ANDs (bit 0)
+     * in a fresh random word, which sets the density of the result to the fraction in binary.
+     */
+    private static long randomWord(SplittableRandom rand, int fraction) {
+        if (fraction <= 0) {
+            return 0L;
         }
+        if (fraction >= 1 << DENSITY_BITS) {
+            return -1L;
+        }
+        long word = 0L;
+        for (int bit = Integer.numberOfTrailingZeros(fraction); bit < DENSITY_BITS; bit++) {
+            long random = rand.nextLong();
+            word = (fraction >>> bit & 1) != 0 ? word | random : word & random;
+        }
+        return word;
     }
 
     /**
@@ -198,10 +752,14 @@ public class Grid {
      */
     public void clear() {
         for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                cells[row][col].setAlive(false);
+            if (anyShared && rowShared[row]) {
+                rows[row] = new long[wordsPerRow];
+                rowShared[row] = false;
+            } else {
+                Arrays.fill(rows[row], 0L);
             }
         }
+        touchAllTiles();
     }
 
     /**
@@ -212,14 +770,38 @@ public class Grid {
     public void printGrid() {
         for (int row = 0; row < height; row++) {
             for (int col = 0; col < width; col++) {
-                System.out.print(cells[row][col] + " ");
+                System.out.print((isAlive(row, col) ? "■" : "□") + " ");
             }
             System.out.println();
         }
         System.out.println();
     }
-}
 
+    /**
+     * A cell that reads and writes its state straight from the grid's bits.
+     */
+    private class CellView extends Cell {
+        private final int row;
+        private final int col;
 
+        private CellView(int row, int col) {
+            this.row = row;
+            this.col = col;
+        }
 
+        @Override
+        public boolean isAlive() {
+            return Grid.this.isAlive(row, col);
+        }
+
+        @Override
+        public void setAlive(boolean alive) {
+            setCellState(row, col, alive);
+        }
 
+        @Override
+        public void toggle() {
+            toggleCell(row, col);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * A Larger-than-Life rule: a two-state rule over the square (Moore) neighborhood of radius R,
+ * where births and survivals are given as ranges of alive-neighbor counts.
+ * Rules are written the way Golly writes them, such as "R5,C0,M1,S34..58,B34..45,NM" for Bosco's Rule.
+ * With M1 the cell itself is counted as one of its neighbors.
+ */
+public class LargerThanLifeRule {
+    public static final int MAX_RANGE = 50;
+
+    private final String name;
+    private final int range;
+    private final boolean includesMiddle;
+    private final int survivalMin;
+    private final int survivalMax;
+    private final int birthMin;
+    private final int birthMax;
+
+    /**
+     * Creates a rule.
+     *
+     * @param name the name of the rule
+     * @param range the neighborhood radius R, from 1 to MAX_RANGE
+     * @param includesMiddle true if the cell counts itself
+     * @param survivalMin the fewest alive neighbors an alive cell survives with
+     * @param survivalMax the most alive neighbors an alive cell survives with
+     * @param birthMin the fewest alive neighbors a dead cell is born with
+     * @param birthMax the most alive neighbors a dead cell is born with
+     */
+    public LargerThanLifeRule(String name, int range, boolean includesMiddle,
+                              int survivalMin, int survivalMax, int birthMin, int birthMax) {
+        if (range < 1 || range > MAX_RANGE) {
+            throw new IllegalArgumentException("Range must be 1 to " + MAX_RANGE + ", got " + range);
+        }
+        this.name = name;
+        this.range = range;
+        this.includesMiddle = includesMiddle;
+        this.survivalMin = survivalMin;
+        this.survivalMax = survivalMax;
+        this.birthMin = birthMin;
+        this.birthMax = birthMax;
+    }
+
+    /**
+     * Parses a rule in Golly's "R5,C0,M1,S34..58,B34..45,NM" form.
+     * Only two-state rules (C0 or C2) over the Moore neighborhood (NM) are supported.
+     *
+     * @param rule the rule string
+     * @return the parsed rule, named by the string itself
+     */
+    public static LargerThanLifeRule parse(String rule) {
+        int range = 1;
+        boolean middle = false;
+        int[] survival = null;
+        int[] birth = null;
+        try {
+            for (String part : rule.trim().toUpperCase().split(",")) {
+                if (part.isEmpty()) {
+                    continue;
+                }
+                String value = part.substring(1);
+                switch (part.charAt(0)) {
+                    case 'R':
+                        range = Integer.parseInt(value);
+                        break;
+                    case 'C':
+                        int states = Integer.parseInt(value);
+                        if (states > 2) {
+                            throw new IllegalArgumentException("Only two-state rules are supported: " + rule);
+                        }
+                        break;
+                    case 'M':
+                        middle = Integer.parseInt(value) != 0;
+                        break;
+                    case 'S':
+                        survival = parseRange(value);
+                        break;
+                    case 'B':
+                        birth = parseRange(value);
+                        break;
+                    case 'N':
+                        if (!value.equals("M")) {
+                            throw new IllegalArgumentException("Only the Moore neighborhood (NM) is supported: " + rule);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown part '" + part + "' in rule: " + rule);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number in rule: " + rule, e);
+        }
+        if (survival == null || birth == null) {
+            throw new IllegalArgumentException("Rule needs both S and B ranges: " + rule);
+        }
+        return new LargerThanLifeRule(rule.trim(), range, middle, survival[0], survival[1], birth[0], birth[1]);
+    }
+
+    private static int[] parseRange(String value) {
+        int dots = value.indexOf("..");
+        if (dots < 0) {
+            int count = Integer.parseInt(value);
+            return new int[] {count, count};
+        }
+        return new int[] {Integer.parseInt(value.substring(0, dots)), Integer.parseInt(value.substring(dots + 2))};
+    }
+
+    // ============================ Known Rules ============================
+
+    /**
+     * Conway's Life written as a Larger-than-Life rule (the middle is counted, so survival is 3 to 4).
+     */
+    public static LargerThanLifeRule conway() {
+        return new LargerThanLifeRule("Conway's Life", 1, true, 3, 4, 3, 3);
+    }
+
+    /**
+     * Bosco's Rule (R5,C0,M1,S34..58,B34..45,NM), known for its large "bugs" that travel like gliders.
+     */
+    public static LargerThanLifeRule bosco() {
+        return new LargerThanLifeRule("Bosco's Rule", 5, true, 34, 58, 34, 45);
+    }
+
+    /**
+     * Majority (R4,C0,M1,S41..81,B41..81,NM): a cell takes the state most of its neighborhood has.
+     */
+    public static LargerThanLifeRule majority() {
+        return new LargerThanLifeRule("Majority", 4, true, 41, 81, 41, 81);
+    }
+
+    /**
+     * Gets the name of this rule.
+     *
+     * @return the rule's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the neighborhood radius.
+     *
+     * @return R
+     */
+    public int getRange() {
+        return range;
+    }
+
+    /**
+     * Checks if a cell counts itself as a neighbor.
+     *
+     * @return true for M1 rules
+     */
+    public boolean includesMiddle() {
+        return includesMiddle;
+    }
+
+    /**
+     * Decides the next state of a cell.
+     *
+     * @param alive true if the cell is alive now
+     * @param count the number of alive cells in its neighborhood, counted as the rule says
+     * @return true if the cell is alive in the next generation
+     */
+    public boolean nextState(boolean alive, int count) {
+        return alive ? count >= survivalMin && count <= survivalMax : count >= birthMin && count <= birthMax;
+    }
+
+    /**
+     * Returns the rule in Golly's notation.
+     *
+     * @return the rule string, such as "R5,C0,M1,S34..58,B34..45,NM"
+     */
+    @Override
+    public String toString() {
+        return "R" + range + ",C0,M" + (includesMiddle ? 1 : 0) + ",S" + survivalMin + ".." + survivalMax
+                + ",B" + birthMin + ".." + birthMax + ",NM";
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+
+/**
+ * Steps a Grid under a Larger-than-Life rule.
+ * Each generation builds a summed-area table of the grid, where entry (r, c) holds the number of
+ * alive cells above and to the left of (r, c). The count for any square neighborhood is then four
+ * table lookups, so the cost per cell stays the same whatever the radius, instead of growing with
+ * (2R+1)^2. The table and word buffers are kept between generations. Cells outside the grid are dead.
+ */
+public class LargerThanLifeSimulator {
+    private final LargerThanLifeRule rule;
+    private int[] table = new int[0];
+    private long[] current = new long[0];
+    private long[] next = new long[0];
+
+    /**
+     * Creates a simulator for a rule.
+     *
+     * @param rule the rule to run
+     */
+    public LargerThanLifeSimulator(LargerThanLifeRule rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * Gets the rule this simulator runs.
+     *
+     * @return the rule
+     */
+    public LargerThanLifeRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Estimates the heap memory the simulator's buffers use, which grow to fit the largest grid stepped.
+     *
+     * @return the footprint in bytes, not counting the grids it steps
+     */
+    public long getMemoryFootprint() {
+        return MemoryLayout.object(4 * MemoryLayout.REFERENCE_BYTES)
+                + MemoryLayout.array(table.length, 4)
+                + 2 * MemoryLayout.array(current.length, 8);
+    }
+
+    /**
+     * Advances the grid to the next generation.
+     *
+     * @param grid the grid to step in place
+     */
+    public void nextGeneration(Grid grid) {
+        int height = grid.getHeight();
+        int width = grid.getWidth();
+        int wordsPerRow = grid.getWordsPerRow();
+        int stride = width + 1;
+        if (table.length < (height + 1) * stride) {
+            table = new int[(height + 1) * stride];
+        }
+        if (current.length < height * wordsPerRow) {
+            current = new long[height * wordsPerRow];
+            next = new long[height * wordsPerRow];
+        }
+        grid.copyWords(current);
+
+        // table[(r + 1) * stride + (c + 1)] = alive cells in rows 0..r, columns 0..c; row 0 and column 0 are 0.
+        // The table may have been used for a grid of another size, so those are cleared every time.
+        Arrays.fill(table, 0, stride, 0);
+        for (int row = 0; row < height; row++) {
+            int above = row * stride;
+            int here = above + stride;
+            int base = row * wordsPerRow;
+            int rowSum = 0;
+            table[here] = 0;
+            for (int col = 0; col < width; col++) {
+                rowSum += (int) (current[base + (col >>> 6)] >>> col) & 1;
+                table[here + col + 1] = table[above + col + 1] + rowSum;
+            }
+        }
+
+        int range = rule.getRange();
+        boolean middle = rule.includesMiddle();
+        for (int row = 0; row < height; row++) {
+            int top = Math.max(0, row - range) * stride;
+            int bottom = (Math.min(height - 1, row + range) + 1) * stride;
+            int base = row * wordsPerRow;
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = current[base + word];
+                long result = 0;
+                int firstCol = word << 6;
+                int lastCol = Math.min(width, firstCol + 64);
+                for (int col = firstCol; col < lastCol; col++) {
+                    int left = Math.max(0, col - range);
+                    int right = Math.min(width - 1, col + range) + 1;
+                    int count = table[bottom + right] - table[top + right] - table[bottom + left] + table[top + left];
+                    boolean alive = (bits >>> col & 1) != 0;
+                    if (alive && !middle) {
+                        count--;
+                    }
+                    if (rule.nextState(alive, count)) {
+                        result |= 1L << col;
+                    }
+                }
+                next[base + word] = result;
+            }
+        }
+        ActivityMap activity = grid.getActivityMap();
+        if (activity != null) {
+            activity.record(current, next);
+        }
+        grid.setWords(next);
+    }
+
+    /**
+     * Advances the grid by several generations.
+     *
+     * @param grid the grid to step in place
+     * @param generations the number of generations to run
+     */
+    public void nextGenerations(Grid grid, int generations) {
+        for (int i = 0; i < generations; i++) {
+            nextGeneration(grid);
+        }
+    }
+}
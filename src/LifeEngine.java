@@ -0,0 +1,155 @@
+/**
+ * A way of running Conway's Game of Life on one board, so different stepping engines can be
+ * swapped for each other and checked against the reference Grid.nextGeneration.
+ */
+public interface LifeEngine {
+
+    /**
+     * Gets a short name for reports.
+     *
+     * @return the engine's name
+     */
+    String getName();
+
+    /**
+     * Replaces the engine's board with a copy of a grid.
+     *
+     * @param grid the board to start from; it is not modified
+     */
+    void load(Grid grid);
+
+    /**
+     * Advances the board one generation.
+     */
+    void step();
+
+    /**
+     * Copies the engine's current board out.
+     *
+     * @return a new grid holding the current board
+     */
+    Grid snapshot();
+
+    // ============================ Engines ============================
+
+    /**
+     * The reference engine: Grid.nextGeneration.
+     */
+    static LifeEngine reference() {
+        return new LifeEngine() {
+            private Grid grid;
+
+            @Override
+            public String getName() {
+                return "Grid";
+            }
+
+            @Override
+            public void load(Grid start) {
+                grid = start.copy();
+            }
+
+            @Override
+            public void step() {
+                grid.nextGeneration();
+            }
+
+            @Override
+            public Grid snapshot() {
+                return grid.copy();
+            }
+        };
+    }
+
+    /**
+     * BitSlicedSimulator running the board as board 0 of its 64, with the other 63 empty.
+     */
+    static LifeEngine bitSliced() {
+        return new LifeEngine() {
+            private BitSlicedSimulator simulator;
+
+            @Override
+            public String getName() {
+                return "BitSliced";
+            }
+
+            @Override
+            public void load(Grid start) {
+                simulator = new BitSlicedSimulator(start.getHeight(), start.getWidth());
+                simulator.loadBoard(0, start);
+            }
+
+            @Override
+            public void step() {
+                simulator.nextGeneration();
+            }
+
+            @Override
+            public Grid snapshot() {
+                return simulator.getBoard(0);
+            }
+        };
+    }
+
+    /**
+     * GenerationsGrid running Life as the 2-state rule B3/S23/C2.
+     */
+    static LifeEngine generations() {
+        return new LifeEngine() {
+            private GenerationsGrid board;
+
+            @Override
+            public String getName() {
+                return "Generations C2";
+            }
+
+            @Override
+            public void load(Grid start) {
+                board = new GenerationsGrid(start.getHeight(), start.getWidth(), GenerationsRule.conway());
+                board.loadFrom(start);
+            }
+
+            @Override
+            public void step() {
+                board.nextGeneration();
+            }
+
+            @Override
+            public Grid snapshot() {
+                Grid grid = new Grid(board.getHeight(), board.getWidth());
+                board.storeTo(grid);
+                return grid;
+            }
+        };
+    }
+
+    /**
+     * LargerThanLifeSimulator running Life as the radius-1 rule R1,C0,M1,S3..4,B3..3,NM.
+     */
+    static LifeEngine largerThanLife() {
+        return new LifeEngine() {
+            private final LargerThanLifeSimulator simulator = new LargerThanLifeSimulator(LargerThanLifeRule.conway());
+            private Grid grid;
+
+            @Override
+            public String getName() {
+                return "Larger-than-Life R1";
+            }
+
+            @Override
+            public void load(Grid start) {
+                grid = start.copy();
+            }
+
+            @Override
+            public void step() {
+                simulator.nextGeneration(grid);
+            }
+
+            @Override
+            public Grid snapshot() {
+                return grid.copy();
+            }
+        };
+    }
+}
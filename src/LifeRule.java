@@ -0,0 +1,134 @@
+/**
+ * A Life-like rule: a two-state rule over the 8-cell neighborhood, given by the neighbor counts
+ * a dead cell is born with and the counts an alive cell survives with, such as "B3/S23" for Conway's Life.
+ * There are 2^18 such rules, numbered by index(): bits 0-8 are the birth counts, bits 9-17 the survival counts.
+ */
+public class LifeRule {
+    public static final int RULE_COUNT = 1 << 18;
+
+    private final int birth;    // bit n set: born with n alive neighbors
+    private final int survival; // bit n set: survives with n alive neighbors
+
+    /**
+     * Creates a rule from neighbor-count masks.
+     *
+     * @param birth bit n set means a dead cell with n alive neighbors is born
+     * @param survival bit n set means an alive cell with n alive neighbors survives
+     */
+    public LifeRule(int birth, int survival) {
+        this.birth = birth & 0x1FF;
+        this.survival = survival & 0x1FF;
+    }
+
+    /**
+     * Gets the rule with the given number.
+     *
+     * @param index the rule number, from 0 to RULE_COUNT - 1
+     * @return the rule
+     */
+    public static LifeRule fromIndex(int index) {
+        if (index < 0 || index >= RULE_COUNT) {
+            throw new IllegalArgumentException("Rule index out of range: " + index);
+        }
+        return new LifeRule(index, index >>> 9);
+    }
+
+    /**
+     * Parses a rule written as "B3/S23" or in the older "survival/birth" form such as "23/3".
+     *
+     * @param rule the rule string
+     * @return the parsed rule
+     */
+    public static LifeRule parse(String rule) {
+        String[] parts = rule.trim().toUpperCase().split("/", -1);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected two parts in rule: " + rule);
+        }
+        if (parts[0].startsWith("B")) {
+            return new LifeRule(countMask(parts[0].substring(1)), countMask(parts[1].replace("S", "")));
+        }
+        if (parts[1].startsWith("B") || parts[0].startsWith("S")) {
+            return new LifeRule(countMask(parts[1].replace("B", "")), countMask(parts[0].replace("S", "")));
+        }
+        return new LifeRule(countMask(parts[1]), countMask(parts[0]));
+    }
+
+    private static int countMask(String digits) {
+        int mask = 0;
+        for (char c : digits.toCharArray()) {
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Bad neighbor count '" + c + "'");
+            }
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+
+    /**
+     * Conway's Life, B3/S23.
+     */
+    public static LifeRule conway() {
+        return new LifeRule(1 << 3, 1 << 2 | 1 << 3);
+    }
+
+    /**
+     * Gets this rule's number.
+     *
+     * @return the index, from 0 to RULE_COUNT - 1
+     */
+    public int index() {
+        return survival << 9 | birth;
+    }
+
+    /**
+     * Checks if a dead cell with the given number of alive neighbors is born.
+     *
+     * @param count the alive-neighbor count (0-8)
+     * @return true if the cell is born
+     */
+    public boolean isBirth(int count) {
+        return (birth >>> count & 1) != 0;
+    }
+
+    /**
+     * Checks if an alive cell with the given number of alive neighbors survives.
+     *
+     * @param count the alive-neighbor count (0-8)
+     * @return true if the cell survives
+     */
+    public boolean isSurvival(int count) {
+        return (survival >>> count & 1) != 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LifeRule && ((LifeRule) other).index() == index();
+    }
+
+    @Override
+    public int hashCode() {
+        return index();
+    }
+
+    /**
+     * Returns the rule in "B/S" notation.
+     *
+     * @return the rule string, such as "B3/S23"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("B");
+        for (int count = 0; count <= 8; count++) {
+            if (isBirth(count)) {
+                text.append(count);
+            }
+        }
+        text.append("/S");
+        for (int count = 0; count <= 8; count++) {
+            if (isSurvival(count)) {
+                text.append(count);
+            }
+        }
+        return text.toString();
+    }
+}
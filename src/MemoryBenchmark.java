@@ -0,0 +1,185 @@
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Measures how much memory each way of storing a board costs per cell, for capacity planning.
+ * For every backend and board size it prints two numbers: the layout estimate (getMemoryFootprint(),
+ * or MemoryLayout for the legacy layout), and the heap actually retained, measured with MemoryMXBean
+ * by building many boards and comparing used heap after garbage collection with and without them.
+ * Off-heap use (direct and mapped buffers, from BufferPoolMXBean) is measured the same way.
+ * The legacy layout is the old Cell[][] of one object per cell, rebuilt here for comparison.
+ * A full collection may leave some garbage in place rather than move live objects over it, which hides
+ * small boards; run with -XX:MarkSweepDeadRatio=0 for exact numbers.
+ */
+public class MemoryBenchmark {
+    private static final long TARGET_BYTES = 64L << 20; // how much to allocate per measurement
+    private static final int MAX_COPIES = 200;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<BufferPoolMXBean> bufferPools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+    // The boards being measured. A field rather than a local, whose last use the JIT may move or drop,
+    // so the boards stay reachable exactly until it is cleared.
+    private Object[] retained;
+
+    /**
+     * A way of storing one board, with its layout estimate.
+     */
+    private static final class Backend {
+        private final String name;
+        private final IntFunction<Object> create; // board side length to a new board
+        private final ToLongFunction<Object> estimate;
+        private final int boards; // boards held by one instance
+
+        Backend(String name, IntFunction<Object> create, ToLongFunction<Object> estimate, int boards) {
+            this.name = name;
+            this.create = create;
+            this.estimate = estimate;
+            this.boards = boards;
+        }
+    }
+
+    private static List<Backend> backends() {
+        return List.of(
+                new Backend("Cell[][] (legacy)", MemoryBenchmark::legacyBoard, board -> legacyFootprint((Cell[][]) board), 1),
+                new Backend("Grid (bit-packed)", size -> new Grid(size, size), board -> ((Grid) board).getMemoryFootprint(), 1),
+                new Backend("BitSliced (per board)", size -> new BitSlicedSimulator(size, size),
+                        board -> ((BitSlicedSimulator) board).getMemoryFootprint(), BitSlicedSimulator.BOARDS),
+                new Backend("Generations 2-bit", size -> new GenerationsGrid(size, size, GenerationsRule.briansBrain()),
+                        board -> ((GenerationsGrid) board).getMemoryFootprint(), 1),
+                new Backend("Generations 4-bit", size -> new GenerationsGrid(size, size, new GenerationsRule("C16", 1 << 3, 1 << 2 | 1 << 3, 16)),
+                        board -> ((GenerationsGrid) board).getMemoryFootprint(), 1)
+        );
+    }
+
+    /**
+     * Builds the board layout Grid used before it was bit-packed: one Cell object per cell.
+     */
+    private static Cell[][] legacyBoard(int size) {
+        Cell[][] cells = new Cell[size][size];
+        for (Cell[] row : cells) {
+            for (int col = 0; col < size; col++) {
+                row[col] = new Cell();
+            }
+        }
+        return cells;
+    }
+
+    private static long legacyFootprint(Cell[][] cells) {
+        long bytes = MemoryLayout.array(cells.length, MemoryLayout.REFERENCE_BYTES);
+        for (Cell[] row : cells) {
+            bytes += MemoryLayout.array(row.length, MemoryLayout.REFERENCE_BYTES) + row.length * MemoryLayout.object(1);
+        }
+        return bytes;
+    }
+
+    /**
+     * Measures one backend at one board size and prints a table row.
+     */
+    private void measure(Backend backend, int size) {
+        long cells = (long) size * size * backend.boards;
+        long estimate = backend.estimate.applyAsLong(backend.create.apply(size));
+        int copies = (int) Math.max(1, Math.min(MAX_COPIES, TARGET_BYTES / estimate));
+        if (estimate * copies > Runtime.getRuntime().maxMemory() / 3) {
+            System.out.printf("%-22s %6d  %12s  (skipped: needs more heap)%n", backend.name, size, "");
+            return;
+        }
+
+        // Measure what is freed when the boards are dropped, so garbage left over from earlier runs cannot skew it
+        retained = allocate(backend, size, copies);
+        long heapWith = usedHeap();
+        long offHeapWith = usedOffHeap();
+        retained = null;
+        long heapWithout = usedHeap();
+        long offHeapWithout = usedOffHeap();
+        double measured = (double) (heapWith - heapWithout) / copies;
+        double offHeap = (double) (offHeapWith - offHeapWithout) / copies;
+
+        System.out.printf("%-22s %6d  %12d  %10.3f  %10.3f  %8.3f  %9.1fx%n",
+                backend.name, size, estimate / backend.boards,
+                (double) estimate / cells, measured / cells, offHeap / cells, measured / cells * 8);
+    }
+
+    private static Object[] allocate(Backend backend, int size, int copies) {
+        Object[] boards = new Object[copies];
+        for (int i = 0; i < copies; i++) {
+            boards[i] = backend.create.apply(size);
+        }
+        return boards;
+    }
+
+    /**
+     * Gets the used heap after collecting garbage until it stops shrinking.
+     */
+    private long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 10; attempt++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private long usedOffHeap() {
+        long used = 0;
+        for (BufferPoolMXBean pool : bufferPools) {
+            used += pool.getMemoryUsed();
+        }
+        return used;
+    }
+
+    /**
+     * Checks whether full collections compact away all garbage, which the measurements rely on.
+     */
+    private static boolean compactsFully() {
+        try {
+            HotSpotDiagnosticMXBean hotspot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Integer.parseInt(hotspot.getVMOption("MarkSweepDeadRatio").getValue()) == 0;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Runs the benchmark. Optional arguments are the board sizes to measure (default 64 256 1024 2048).
+     * Run with a fixed heap (for example -Xms1g -Xmx1g) and -XX:MarkSweepDeadRatio=0 for steady numbers.
+     */
+    public static void main(String[] args) {
+        int[] sizes = {64, 256, 1024, 2048};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("References: %d bytes, object header: %d bytes, max heap: %d MB%n",
+                MemoryLayout.REFERENCE_BYTES, MemoryLayout.OBJECT_HEADER_BYTES, Runtime.getRuntime().maxMemory() >> 20);
+        if (!compactsFully()) {
+            System.out.println("Note: garbage collection may leave dead objects in place; "
+                    + "run with -XX:MarkSweepDeadRatio=0 or small boards may measure as 0");
+        }
+        System.out.printf("%-22s %6s  %12s  %10s  %10s  %8s  %10s%n",
+                "Backend", "Size", "Bytes/board", "Est. B/cell", "Heap B/cell", "Off-heap", "vs 1 bit");
+        MemoryBenchmark benchmark = new MemoryBenchmark();
+        for (Backend backend : backends()) {
+            for (int size : sizes) {
+                benchmark.measure(backend, size);
+            }
+        }
+    }
+}
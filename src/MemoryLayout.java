@@ -0,0 +1,73 @@
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Estimates how many bytes objects and arrays take on the heap, the way an object-layout tool such
+ * as JOL would report them for HotSpot: a 12-byte object header and 16-byte array header with
+ * compressed class pointers, 4-byte references while compressed oops are on (8 bytes otherwise),
+ * and every object padded to a multiple of 8 bytes.
+ */
+public final class MemoryLayout {
+    public static final int OBJECT_ALIGNMENT = 8;
+    public static final int OBJECT_HEADER_BYTES = 12;
+    public static final int ARRAY_HEADER_BYTES = 16;
+    public static final int REFERENCE_BYTES = compressedOops() ? 4 : 8;
+
+    private MemoryLayout() {
+    }
+
+    /**
+     * Estimates the size of an object with the given fields, not counting what they point to.
+     *
+     * @param fieldBytes the total size of the object's own fields
+     * @return the padded object size in bytes
+     */
+    public static long object(long fieldBytes) {
+        return align(OBJECT_HEADER_BYTES + fieldBytes);
+    }
+
+    /**
+     * Estimates the size of an array, not counting what its elements point to.
+     *
+     * @param length the number of elements
+     * @param elementBytes the size of one element (8 for long, 1 for byte or boolean, REFERENCE_BYTES for objects)
+     * @return the padded array size in bytes
+     */
+    public static long array(long length, int elementBytes) {
+        return align(ARRAY_HEADER_BYTES + length * elementBytes);
+    }
+
+    /**
+     * Estimates the size of a rectangular long[rows][columns] array, counting the row arrays.
+     *
+     * @param rows the number of rows
+     * @param columns the number of longs in each row
+     * @return the total size in bytes
+     */
+    public static long longMatrix(long rows, long columns) {
+        return array(rows, REFERENCE_BYTES) + rows * array(columns, 8);
+    }
+
+    /**
+     * Rounds a size up to the object alignment.
+     *
+     * @param bytes the unpadded size
+     * @return the padded size
+     */
+    public static long align(long bytes) {
+        return (bytes + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+
+    /**
+     * Checks whether the running JVM compresses references. Assumes it does if the option cannot be read.
+     */
+    private static boolean compressedOops() {
+        try {
+            HotSpotDiagnosticMXBean hotspot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Boolean.parseBoolean(hotspot.getVMOption("UseCompressedOops").getValue());
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+}
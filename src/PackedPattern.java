@@ -0,0 +1,128 @@
+/**
+ * A pattern precompiled into bit-packed rows, laid out like Grid's rows, so it can be
+ * blitted onto a grid a whole word at a time.
+ * Compile a pattern once with Pattern.toPacked() and reuse it for every placement.
+ */
+public class PackedPattern {
+    private final String name;
+    private final int height;
+    private final int width;
+    private final long[][] rows;
+
+    /**
+     * Compiles a pattern into packed rows.
+     *
+     * @param pattern the pattern to compile
+     */
+    public PackedPattern(Pattern pattern) {
+        boolean[][] shape = pattern.getPattern();
+        int maxWidth = 0;
+        for (boolean[] row : shape) {
+            maxWidth = Math.max(maxWidth, row.length);
+        }
+
+        this.name = pattern.getName();
+        this.height = shape.length;
+        this.width = maxWidth;
+        this.rows = new long[height][(width + 63) >>> 6];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < shape[row].length; col++) {
+                if (shape[row][col]) {
+                    rows[row][col >>> 6] |= 1L << col;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the name of the compiled pattern.
+     *
+     * @return the pattern's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the height (number of rows) of this pattern.
+     *
+     * @return the height of the pattern
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the width (number of columns) of this pattern.
+     *
+     * @return the width of the pattern
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets 64 cells of a pattern row, starting at any column.
+     * Columns outside the pattern, including negative ones, read as dead.
+     *
+     * @param row the pattern row
+     * @param col the pattern column of the lowest bit of the result
+     * @return the cells from col to col + 63, one per bit
+     */
+    public long getBits(int row, int col) {
+        long[] words = rows[row];
+        int word = Math.floorDiv(col, 64);
+        int shift = Math.floorMod(col, 64);
+        long low = word >= 0 && word < words.length ? words[word] : 0L;
+        if (shift == 0) {
+            return low;
+        }
+        long high = word + 1 >= 0 && word + 1 < words.length ? words[word + 1] : 0L;
+        return low >>> shift | high << (64 - shift);
+    }
+
+    /**
+     * Creates a placement of this pattern for Grid.blitAll.
+     *
+     * @param row the top-left row position
+     * @param col the top-left column position
+     * @param mode how the pattern combines with the grid
+     * @return the placement
+     */
+    public Placement at(int row, int col, BlitMode mode) {
+        return new Placement(this, row, col, mode);
+    }
+
+    /**
+     * One pattern at one position, for placing many patterns with a single Grid.blitAll call.
+     */
+    public static final class Placement {
+        private final PackedPattern pattern;
+        private final int row;
+        private final int col;
+        private final BlitMode mode;
+
+        private Placement(PackedPattern pattern, int row, int col, BlitMode mode) {
+            this.pattern = pattern;
+            this.row = row;
+            this.col = col;
+            this.mode = mode;
+        }
+
+        public PackedPattern getPattern() {
+            return pattern;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        public BlitMode getMode() {
+            return mode;
+        }
+    }
+}
@@ -1,9 +1,12 @@
+import java.util.List;
+
 /**
  * Contains predefined patterns for Conway's Game of Life.
  */
 public class Pattern {
     private boolean[][] pattern;
     private String name;
+    private PackedPattern packed; // built on first use
 
     /**
      * Creates a new pattern with the specified name and shape.
@@ -44,12 +47,17 @@ public class Pattern {
     }
 
     /**
-     * Gets the width (number of columns) of this pattern.
+     * Gets the width (number of columns) of this pattern: the length of its longest row.
+     * Cells past the end of a shorter row count as dead.
      *
      * @return the width of the pattern
      */
     public int getWidth() {
-        return pattern[0].length;
+        int width = 0;
+        for (boolean[] row : pattern) {
+            width = Math.max(width, row.length);
+        }
+        return width;
     }
 
     /**
@@ -61,16 +69,20 @@ public class Pattern {
      * @param startCol the top-left column position to start placing
      */
     public void placeOnGrid(Grid grid, int startRow, int startCol) {
-        for (int row = 0; row < pattern.length; row++) {
-            for (int col = 0; col < pattern[row].length; col++) {
-                int gridRow = startRow + row;
-                int gridCol = startCol + col;
-
-                if (gridRow >= 0 && gridRow < grid.getHeight() && gridCol >= 0 && gridCol < grid.getWidth()) {
-                    grid.setCellState(gridRow, gridCol, pattern[row][col]);
-                }
-            }
+        grid.blit(toPacked(), startRow, startCol, BlitMode.REPLACE);
+    }
+
+    /**
+     * Compiles this pattern into bit-packed rows for fast, repeated blitting.
+     * The packed form is built once and reused.
+     *
+     * @return the packed form of this pattern
+     */
+    public PackedPattern toPacked() {
+        if (packed == null) {
+            packed = new PackedPattern(this);
         }
+        return packed;
     }
 
     // ============================ Known Patterns ============================
@@ -253,8 +265,8 @@ public class Pattern {
      */
     public static Pattern middleweightSpaceship() {
         boolean[][] pattern = {
-                {false, false, true, false, false, false},
-                {false, true, false, false, true, false},
+                {false, false, false, true, false, false},
+                {false, true, false, false, false, true},
                 {true, false, false, false, false, false},
                 {true, false, false, false, false, true},
                 {true, true, true, true, true, false}
@@ -268,8 +280,8 @@ public class Pattern {
      */
     public static Pattern heavyweightSpaceship() {
         boolean[][] pattern = {
-                {false, false, true, true, false, false, false},
-                {false, true, false, false, false, true, false},
+                {false, false, false, true, true, false, false},
+                {false, true, false, false, false, false, true},
                 {true, false, false, false, false, false, false},
                 {true, false, false, false, false, false, true},
                 {true, true, true, true, true, true, false}
@@ -328,4 +340,20 @@ public class Pattern {
 
         return new Pattern("Gosper Glider Gun", pattern);
     }
+
+    // ============================ Library ============================
+
+    /**
+     * Creates one of every known pattern, in the order they are defined above.
+     *
+     * @return a fresh list of all predefined patterns
+     */
+    public static List<Pattern> allPatterns() {
+        return List.of(
+                block(), BeeHive(), loaf(), boat(), tub(),
+                blinker(), toad(), beacon(), pulsar(), pentadecathlon(),
+                glider(), lightweightSpaceship(), middleweightSpaceship(), heavyweightSpaceship(),
+                GosperGliderGun()
+        );
+    }
 }
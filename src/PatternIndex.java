@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+
+/**
+ * Hash index of known patterns by canonical form.
+ * A shape's canonical form is the smallest encoding among its 8 orientations (4 rotations,
+ * each optionally mirrored), so looking up any orientation of an object is a single hash lookup.
+ * Oscillators and spaceships are indexed in every phase, so an object matches whatever phase it
+ * settled in. Each phase also records its reach, the largest row or column gap that must be bridged
+ * to keep it in one piece, so a census knows how far apart the pieces of a known shape can lie.
+ * The index is read-only once built and safe to share between threads.
+ */
+public class PatternIndex {
+    private static final int MAX_PERIOD = 32;
+
+    private final Map<CanonicalForm, String> names = new HashMap<>();
+    private final TreeSet<Integer> reaches = new TreeSet<>();
+
+    /**
+     * Creates an index of every pattern in the Pattern library.
+     */
+    public PatternIndex() {
+        this(Pattern.allPatterns());
+    }
+
+    /**
+     * Creates an index of the given patterns.
+     * If two patterns share a canonical form, the first one keeps the name.
+     *
+     * @param patterns the patterns to index
+     */
+    public PatternIndex(List<Pattern> patterns) {
+        for (Pattern pattern : patterns) {
+            for (CanonicalForm phase : phasesOf(pattern)) {
+                if (names.putIfAbsent(phase, pattern.getName()) == null) {
+                    reaches.add(reachOf(phase));
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the name of a shape.
+     *
+     * @param form the canonical form of the shape
+     * @return the pattern name, or null if the shape is not in the index
+     */
+    public String lookup(CanonicalForm form) {
+        return names.get(form);
+    }
+
+    /**
+     * Gets the number of distinct canonical forms in the index.
+     *
+     * @return the number of indexed shapes
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Gets the reaches the indexed shapes need to stay in one piece.
+     *
+     * @return the distinct reaches, smallest first
+     */
+    public int[] getReaches() {
+        return reaches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Finds the smallest reach that connects every cell of a shape, using Prim's algorithm
+     * with the row or column distance between cells as the edge length.
+     */
+    private static int reachOf(CanonicalForm form) {
+        int height = (int) form.words[0];
+        int width = (int) form.words[1];
+        int wordsPerRow = (width + 63) >>> 6;
+        int[] rows = new int[form.population];
+        int[] cols = new int[form.population];
+        int count = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                if ((form.words[2 + r * wordsPerRow + (c >>> 6)] >>> (c & 63) & 1) != 0) {
+                    rows[count] = r;
+                    cols[count] = c;
+                    count++;
+                }
+            }
+        }
+
+        // distance[i] is how far cell i is from the connected cells, or -1 once it is connected
+        int[] distance = new int[count];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[0] = 0;
+        int reach = 1;
+        for (int connected = 0; connected < count; connected++) {
+            int next = -1;
+            for (int i = 0; i < count; i++) {
+                if (distance[i] >= 0 && (next < 0 || distance[i] < distance[next])) {
+                    next = i;
+                }
+            }
+            reach = Math.max(reach, distance[next]);
+            distance[next] = -1;
+            for (int i = 0; i < count; i++) {
+                if (distance[i] >= 0) {
+                    int gap = Math.max(Math.abs(rows[i] - rows[next]), Math.abs(cols[i] - cols[next]));
+                    distance[i] = Math.min(distance[i], gap);
+                }
+            }
+        }
+        return reach;
+    }
+
+    /**
+     * Runs a pattern on an empty grid until it returns to its starting shape, collecting each phase.
+     * Patterns that do not return within MAX_PERIOD generations are indexed by their first phase only.
+     */
+    private static List<CanonicalForm> phasesOf(Pattern pattern) {
+        int margin = MAX_PERIOD;
+        Grid grid = new Grid(pattern.getHeight() + 2 * margin, pattern.getWidth() + 2 * margin);
+        pattern.placeOnGrid(grid, margin, margin);
+
+        List<CanonicalForm> phases = new ArrayList<>();
+        CanonicalForm first = canonicalForm(grid);
+        phases.add(first);
+        for (int generation = 1; generation <= MAX_PERIOD; generation++) {
+            grid.nextGeneration();
+            CanonicalForm phase = canonicalForm(grid);
+            if (phase == null) {
+                break;
+            }
+            if (phase.equals(first)) {
+                return phases;
+            }
+            phases.add(phase);
+        }
+        return List.of(first);
+    }
+
+    /**
+     * Computes the canonical form of all live cells on a grid.
+     */
+    private static CanonicalForm canonicalForm(Grid grid) {
+        int count = 0;
+        int[] rows = new int[grid.getPopulation()];
+        int[] cols = new int[rows.length];
+        PrimitiveIterator.OfLong live = grid.liveCellIterator();
+        while (live.hasNext()) {
+            long cell = live.nextLong();
+            rows[count] = Grid.cellRow(cell);
+            cols[count] = Grid.cellCol(cell);
+            count++;
+        }
+        return count == 0 ? null : canonicalForm(rows, cols, count);
+    }
+
+    /**
+     * Computes the canonical form of a set of live cells.
+     *
+     * @param rows the row of each cell
+     * @param cols the column of each cell
+     * @param count the number of cells to use from the arrays
+     * @return the canonical form of the shape
+     */
+    public static CanonicalForm canonicalForm(int[] rows, int[] cols, int count) {
+        int minRow = Integer.MAX_VALUE;
+        int minCol = Integer.MAX_VALUE;
+        int maxRow = Integer.MIN_VALUE;
+        int maxCol = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            minRow = Math.min(minRow, rows[i]);
+            maxRow = Math.max(maxRow, rows[i]);
+            minCol = Math.min(minCol, cols[i]);
+            maxCol = Math.max(maxCol, cols[i]);
+        }
+        int height = maxRow - minRow + 1;
+        int width = maxCol - minCol + 1;
+
+        long[] best = null;
+        for (int orientation = 0; orientation < 8; orientation++) {
+            boolean transpose = (orientation & 4) != 0;
+            boolean flipRows = (orientation & 2) != 0;
+            boolean flipCols = (orientation & 1) != 0;
+            int outHeight = transpose ? width : height;
+            int outWidth = transpose ? height : width;
+            int wordsPerRow = (outWidth + 63) >>> 6;
+
+            // Layout: [height, width, row 0 words..., row 1 words..., ...]
+            long[] words = new long[2 + outHeight * wordsPerRow];
+            words[0] = outHeight;
+            words[1] = outWidth;
+            for (int i = 0; i < count; i++) {
+                int r = rows[i] - minRow;
+                int c = cols[i] - minCol;
+                if (flipRows) {
+                    r = height - 1 - r;
+                }
+                if (flipCols) {
+                    c = width - 1 - c;
+                }
+                int outRow = transpose ? c : r;
+                int outCol = transpose ? r : c;
+                words[2 + outRow * wordsPerRow + (outCol >>> 6)] |= 1L << (outCol & 63);
+            }
+            if (best == null || Arrays.compare(words, best) < 0) {
+                best = words;
+            }
+        }
+        return new CanonicalForm(best, count);
+    }
+
+    /**
+     * A shape reduced to its bounding box in its canonical orientation.
+     * Two shapes have equal canonical forms exactly when one is a rotation or reflection of the other.
+     */
+    public static final class CanonicalForm {
+        private final long[] words;
+        private final int population;
+        private final int hash;
+
+        private CanonicalForm(long[] words, int population) {
+            this.words = words;
+            this.population = population;
+            this.hash = Arrays.hashCode(words);
+        }
+
+        /**
+         * Gets the number of live cells in the shape.
+         *
+         * @return the population of the shape
+         */
+        public int getPopulation() {
+            return population;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CanonicalForm && hash == ((CanonicalForm) o).hash
+                    && Arrays.equals(words, ((CanonicalForm) o).words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Returns a compact code for the shape: population, bounding box and row bits in hex.
+         *
+         * @return a code such as "p4_2x2_3.3" for a block
+         */
+        @Override
+        public String toString() {
+            StringBuilder code = new StringBuilder();
+            code.append('p').append(population).append('_').append(words[0]).append('x').append(words[1]).append('_');
+            for (int i = 2; i < words.length; i++) {
+                if (i > 2) {
+                    code.append('.');
+                }
+                code.append(Long.toHexString(words[i]));
+            }
+            return code.toString();
+        }
+    }
+}
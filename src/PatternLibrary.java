@@ -0,0 +1,308 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A catalog of patterns, looked up by name.
+ * Registering a pattern only records how to make it: built-in patterns are registered with their
+ * factory method and pattern files by path, so indexing a directory of thousands of files only lists
+ * their names. A pattern is made the first time it is asked for and kept in a least-recently-used
+ * cache; once the cached patterns use more than the memory cap, the least recently used are dropped
+ * and made again if they are needed later.
+ *
+ * <p>Patterns handed out are shared with the cache and must not be modified.
+ */
+public class PatternLibrary {
+    public static final String DEFAULT_DIRECTORY = "patterns";
+    public static final long DEFAULT_CACHE_BYTES = 8L << 20;
+    public static final List<String> BUILT_IN_CATEGORIES = List.of("Still Lifes", "Oscillators", "Spaceships", "Generators");
+
+    private final long cacheBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Pattern> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty library with the default 8 MB cache.
+     */
+    public PatternLibrary() {
+        this(DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * Creates an empty library.
+     *
+     * @param cacheBytes the most memory parsed patterns may use before old ones are dropped
+     */
+    public PatternLibrary(long cacheBytes) {
+        this.cacheBytes = cacheBytes;
+    }
+
+    /**
+     * Creates the library the application starts with: the built-in patterns
+     * and every pattern file under the "patterns" directory, if there is one.
+     *
+     * @return the standard library
+     */
+    public static PatternLibrary standard() {
+        PatternLibrary library = new PatternLibrary();
+        library.addBuiltIns();
+        Path directory = Paths.get(DEFAULT_DIRECTORY);
+        if (Files.isDirectory(directory)) {
+            try {
+                library.addDirectory(directory);
+            } catch (IOException e) {
+                System.err.println("Could not index " + directory + ": " + e.getMessage());
+            }
+        }
+        return library;
+    }
+
+    // ============================ Indexing ============================
+
+    /**
+     * Registers a pattern under a name.
+     * The pattern is not made until it is first asked for.
+     *
+     * @param name the name to list the pattern under
+     * @param category the group the pattern belongs to, such as "Oscillators"
+     * @param loader makes the pattern
+     * @throws IllegalArgumentException if a pattern is already registered under the name
+     */
+    public synchronized void register(String name, String category, Supplier<Pattern> loader) {
+        if (entries.containsKey(name)) {
+            throw new IllegalArgumentException("A pattern named \"" + name + "\" is already registered");
+        }
+        entries.put(name, new Entry(name, category, loader));
+    }
+
+    /**
+     * Registers the predefined patterns from Pattern, under BUILT_IN_CATEGORIES.
+     * They are listed under the short names the GUI's pattern selector has always shown.
+     */
+    public void addBuiltIns() {
+        register("Block", "Still Lifes", Pattern::block);
+        register("Beehive", "Still Lifes", Pattern::BeeHive);
+        register("Loaf", "Still Lifes", Pattern::loaf);
+        register("Boat", "Still Lifes", Pattern::boat);
+        register("Tub", "Still Lifes", Pattern::tub);
+        register("Blinker", "Oscillators", Pattern::blinker);
+        register("Toad", "Oscillators", Pattern::toad);
+        register("Beacon", "Oscillators", Pattern::beacon);
+        register("Pulsar", "Oscillators", Pattern::pulsar);
+        register("Pentadecathlon", "Oscillators", Pattern::pentadecathlon);
+        register("Glider", "Spaceships", Pattern::glider);
+        register("LWSS", "Spaceships", Pattern::lightweightSpaceship);
+        register("MWSS", "Spaceships", Pattern::middleweightSpaceship);
+        register("HWSS", "Spaceships", Pattern::heavyweightSpaceship);
+        register("Gosper Glider Gun", "Generators", Pattern::GosperGliderGun);
+    }
+
+    /**
+     * Registers every .rle and .cells file under a directory, listed by file name and
+     * grouped by the folder they are in. The files are not read until a pattern is asked for.
+     * A file whose name is already taken, by a built-in pattern or another file, is listed by its
+     * path within the directory instead, such as "oscillators/Toad.rle"; each such file is reported
+     * on standard error, as is a file skipped because even that name is taken.
+     *
+     * @param directory the directory to index, searched recursively
+     * @return the number of files registered
+     * @throws IOException if the directory cannot be listed
+     */
+    public int addDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).filter(PatternParser::isPatternFile).sorted().collect(Collectors.toList());
+        }
+        int registered = 0;
+        for (Path file : files) {
+            Path relative = directory.relativize(file);
+            Path parent = relative.getParent();
+            String category = parent == null ? directory.getFileName().toString() : parent.toString();
+            String name = PatternParser.nameOf(file);
+            if (contains(name)) {
+                StringBuilder path = new StringBuilder();
+                for (Path part : relative) {
+                    path.append(path.length() == 0 ? "" : "/").append(part);
+                }
+                if (contains(path.toString())) {
+                    System.err.println("Skipped " + file + ": the names \"" + name + "\" and \"" + path + "\" are taken");
+                    continue;
+                }
+                System.err.println("Listed " + file + " as \"" + path + "\": the name \"" + name + "\" is taken");
+                name = path.toString();
+            }
+            register(name, category, () -> {
+                try {
+                    return PatternParser.parse(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            registered++;
+        }
+        return registered;
+    }
+
+    // ============================ Lookup ============================
+
+    /**
+     * Gets the number of registered patterns.
+     *
+     * @return the pattern count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks whether a pattern is registered under a name.
+     *
+     * @param name the name to look for
+     * @return true if the name is taken
+     */
+    public synchronized boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Gets the categories in the order they were first registered.
+     *
+     * @return the category names
+     */
+    public synchronized List<String> getCategories() {
+        LinkedHashSet<String> categories = new LinkedHashSet<>();
+        for (Entry entry : entries.values()) {
+            categories.add(entry.category);
+        }
+        return new ArrayList<>(categories);
+    }
+
+    /**
+     * Gets the names of the patterns in a category, in registration order.
+     *
+     * @param category the category
+     * @return the pattern names
+     */
+    public synchronized List<String> getNames(String category) {
+        List<String> names = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.category.equals(category)) {
+                names.add(entry.name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Finds the patterns whose name or category contains the query, ignoring case.
+     * Searching never parses a pattern.
+     *
+     * @param query the text to look for; empty matches everything
+     * @return the matching names, in registration order
+     */
+    public synchronized List<String> search(String query) {
+        String needle = query.trim().toLowerCase();
+        List<String> names = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.name.toLowerCase().contains(needle) || entry.category.toLowerCase().contains(needle)) {
+                names.add(entry.name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Gets a pattern by name, making it if it is not cached.
+     *
+     * @param name the registered name
+     * @return the pattern, or null if no pattern has that name
+     * @throws UncheckedIOException if the pattern's file cannot be read
+     */
+    public synchronized Pattern get(String name) {
+        Pattern pattern = cache.get(name);
+        if (pattern != null) {
+            hits++;
+            return pattern;
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return null;
+        }
+        misses++;
+        pattern = entry.loader.get();
+        cache.put(name, pattern);
+        cachedBytes += estimateBytes(pattern);
+
+        // Drop the least recently used patterns, but always keep the one just made
+        Iterator<Map.Entry<String, Pattern>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > cacheBytes && cache.size() > 1) {
+            Pattern dropped = eldest.next().getValue();
+            eldest.remove();
+            cachedBytes -= estimateBytes(dropped);
+        }
+        return pattern;
+    }
+
+    /**
+     * Gets how much memory the cached patterns are estimated to use.
+     *
+     * @return the estimate in bytes
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Gets how many lookups were answered from the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets how many lookups had to make the pattern.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Estimates the memory a pattern uses: one byte per cell plus an array header per row.
+     */
+    private static long estimateBytes(Pattern pattern) {
+        return 16 + (long) pattern.getHeight() * (16 + pattern.getWidth() + 8);
+    }
+
+    /**
+     * How to make one registered pattern.
+     */
+    private static final class Entry {
+        private final String name;
+        private final String category;
+        private final Supplier<Pattern> loader;
+
+        Entry(String name, String category, Supplier<Pattern> loader) {
+            this.name = name;
+            this.category = category;
+            this.loader = loader;
+        }
+    }
+}
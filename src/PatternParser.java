@@ -0,0 +1,200 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads patterns from the two common Life file formats:
+ * run-length encoded ".rle" files and plaintext ".cells" files.
+ * Only live and dead cells are read; any extra states in an RLE file count as alive.
+ * Patterns are limited to MAX_SIZE cells a side and MAX_CELLS cells in all, so a bad header or run
+ * count is reported as an IllegalArgumentException instead of exhausting memory.
+ */
+public class PatternParser {
+    public static final int MAX_SIZE = 1 << 14;
+    public static final int MAX_CELLS = 1 << 24;
+
+    private PatternParser() {
+    }
+
+    /**
+     * Checks if a file has an extension this parser reads.
+     *
+     * @param file the file to check
+     * @return true for .rle and .cells files
+     */
+    public static boolean isPatternFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".rle") || name.endsWith(".cells");
+    }
+
+    /**
+     * Gets the pattern name a file gives without reading it: its file name without the extension.
+     *
+     * @param file the pattern file
+     * @return the name to list the file under
+     */
+    public static String nameOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Reads a pattern file, picking the format from its extension.
+     * A name given inside the file ("#N" or "!Name:") wins over the file name.
+     *
+     * @param file the .rle or .cells file
+     * @return the pattern
+     * @throws IOException if the file cannot be read
+     */
+    public static Pattern parse(Path file) throws IOException {
+        String text = Files.readString(file, StandardCharsets.UTF_8);
+        String name = nameOf(file);
+        if (file.getFileName().toString().toLowerCase().endsWith(".cells")) {
+            return parseCells(name, text);
+        }
+        return parseRle(name, text);
+    }
+
+    /**
+     * Parses run-length encoded text, such as "x = 3, y = 3\nbo$2bo$3o!".
+     *
+     * @param defaultName the name to use if the text does not give one
+     * @param text the RLE text
+     * @return the pattern
+     */
+    public static Pattern parseRle(String defaultName, String text) {
+        String name = defaultName;
+        int width = 0;
+        int height = 0;
+        List<int[]> live = new ArrayList<>();
+        int row = 0;
+        int col = 0;
+        int run = 0;
+
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            String line;
+            body:
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("#")) {
+                    if ((line.startsWith("#N") || line.startsWith("#n")) && line.length() > 2) {
+                        name = line.substring(2).trim();
+                    }
+                    continue;
+                }
+                if (line.startsWith("x") || line.startsWith("X")) {
+                    for (String field : line.split(",")) {
+                        String[] pair = field.split("=");
+                        if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("x")) {
+                            width = Integer.parseInt(pair[1].trim());
+                        } else if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("y")) {
+                            height = Integer.parseInt(pair[1].trim());
+                        }
+                    }
+                    if (width < 0 || height < 0) {
+                        throw new IllegalArgumentException("Bad header in RLE pattern " + name);
+                    }
+                    continue;
+                }
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (Character.isDigit(c)) {
+                        run = run * 10 + (c - '0');
+                        if (run > MAX_SIZE) {
+                            throw tooLarge(name);
+                        }
+                        continue;
+                    }
+                    int count = Math.max(run, 1);
+                    run = 0;
+                    if (c == '!') {
+                        break body;
+                    } else if (c == '$') {
+                        row += count;
+                        col = 0;
+                    } else if (c == 'b' || c == '.') {
+                        col += count;
+                    } else if (Character.isLetter(c)) {
+                        for (int k = 0; k < count; k++) {
+                            live.add(new int[] {row, col++});
+                        }
+                    } else if (!Character.isWhitespace(c)) {
+                        throw new IllegalArgumentException("Unexpected '" + c + "' in RLE pattern " + name);
+                    }
+                    if (row >= MAX_SIZE || col > MAX_SIZE) {
+                        throw tooLarge(name);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading a string cannot fail", e);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad header in RLE pattern " + name, e);
+        }
+        return build(name, height, width, live);
+    }
+
+    /**
+     * Parses plaintext, where each line is a row with '.' for dead and 'O' for alive cells
+     * and lines starting with '!' are comments.
+     *
+     * @param defaultName the name to use if the text does not give one
+     * @param text the plaintext pattern
+     * @return the pattern
+     */
+    public static Pattern parseCells(String defaultName, String text) {
+        String name = defaultName;
+        List<int[]> live = new ArrayList<>();
+        int row = 0;
+        int width = 0;
+        for (String line : text.split("\\R")) {
+            if (line.startsWith("!")) {
+                if (line.startsWith("!Name:")) {
+                    name = line.substring(6).trim();
+                }
+                continue;
+            }
+            line = line.stripTrailing();
+            width = Math.max(width, line.length());
+            for (int col = 0; col < line.length(); col++) {
+                char c = line.charAt(col);
+                if (c == 'O' || c == 'o' || c == '*') {
+                    live.add(new int[] {row, col});
+                } else if (c != '.' && !Character.isWhitespace(c)) {
+                    throw new IllegalArgumentException("Unexpected '" + c + "' in plaintext pattern " + name);
+                }
+            }
+            row++;
+        }
+        return build(name, row, width, live);
+    }
+
+    /**
+     * Builds a pattern at least as large as the given size and large enough for every live cell.
+     */
+    private static Pattern build(String name, int height, int width, List<int[]> live) {
+        for (int[] cell : live) {
+            height = Math.max(height, cell[0] + 1);
+            width = Math.max(width, cell[1] + 1);
+        }
+        if (height > MAX_SIZE || width > MAX_SIZE || (long) height * width > MAX_CELLS) {
+            throw tooLarge(name);
+        }
+        boolean[][] pattern = new boolean[Math.max(height, 1)][Math.max(width, 1)];
+        for (int[] cell : live) {
+            pattern[cell[0]][cell[1]] = true;
+        }
+        return new Pattern(name, pattern);
+    }
+
+    private static IllegalArgumentException tooLarge(String name) {
+        return new IllegalArgumentException("Pattern " + name + " is larger than " + MAX_SIZE + " cells a side or "
+                + MAX_CELLS + " cells in all");
+    }
+}
@@ -0,0 +1,456 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Surveys how Life-like rules behave by running 64 random soups per rule on a BitSlicedSimulator.
+ * A soup is settled once it dies out, explodes past a population limit, or repeats a recent state;
+ * a rule stops early once all 64 soups are settled. The rule space is cut into shards of consecutive
+ * rule numbers that run on a thread pool. Each shard streams one CSV row per rule into a temporary
+ * file named after its rule range, which is renamed when the shard is complete, so a stopped run can be
+ * resumed by skipping the rules that existing files already cover, whatever shard size wrote them.
+ * The run's parameters are kept in a manifest next to the shards, and resuming with different
+ * parameters is refused rather than mixing two surveys.
+ * Soups are seeded from the rule number, so results do not depend on which shards ran together.
+ */
+public class RuleExplorer {
+    public static final int DEFAULT_SHARD_SIZE = 1024;
+    public static final int MAX_PERIOD = 30; // longest repeat that counts as settling
+    public static final String CSV_HEADER =
+            "rule,index,extinct,exploded,periodic,unsettled,generations,growth,stabilization,max_period";
+    private static final int SETTLED_EXTINCT = 1;
+    private static final int SETTLED_EXPLODED = 2;
+    private static final int SETTLED_PERIODIC = 3;
+    private static final String MANIFEST = "survey.properties";
+
+    private final Path outputDirectory;
+    private final int boardSize;
+    private final int maxGenerations;
+    private final long seed;
+    private int shardSize = DEFAULT_SHARD_SIZE;
+    private double density = 0.35;
+    private double explodeDensity = 0.6;
+
+    /**
+     * Creates an explorer.
+     *
+     * @param outputDirectory the directory the shard files are written to
+     * @param boardSize the width and height of each soup
+     * @param maxGenerations the most generations each rule runs
+     * @param seed the seed the soups are drawn from
+     */
+    public RuleExplorer(Path outputDirectory, int boardSize, int maxGenerations, long seed) {
+        this.outputDirectory = outputDirectory;
+        this.boardSize = boardSize;
+        this.maxGenerations = maxGenerations;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets how many consecutive rules make up one shard (default 1024).
+     * Results do not depend on it, so a run can be resumed with another shard size.
+     *
+     * @param shardSize the number of rules per shard
+     */
+    public void setShardSize(int shardSize) {
+        this.shardSize = shardSize;
+    }
+
+    /**
+     * Sets the share of alive cells in each starting soup (default 0.35).
+     *
+     * @param density the probability (0.0 to 1.0) that each cell starts alive
+     */
+    public void setDensity(double density) {
+        this.density = density;
+    }
+
+    /**
+     * Sets the share of alive cells above which a soup counts as exploded (default 0.6).
+     *
+     * @param explodeDensity the population limit as a fraction of the board
+     */
+    public void setExplodeDensity(double explodeDensity) {
+        this.explodeDensity = explodeDensity;
+    }
+
+    /**
+     * Runs every part of a range of rules that no completed file covers yet.
+     * Each shard runs only the rules its range does not share with existing files, which may have been
+     * written with another shard size, so every rule ends up in exactly one file.
+     *
+     * @param firstRule the first rule number to explore
+     * @param endRule one past the last rule number to explore
+     * @param threads the number of shards to run at once
+     * @return the number of ranges run; rules already on disk are not counted
+     * @throws IOException if a shard file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the shards
+     * @throws IllegalStateException if the directory holds a survey run with other parameters
+     */
+    public int run(int firstRule, int endRule, int threads) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        checkManifest();
+        List<int[]> completed = completedRanges();
+        List<int[]> pending = new ArrayList<>();
+        for (int shard = firstRule / shardSize; shard * shardSize < endRule; shard++) {
+            addGaps(pending, shardFrom(shard, firstRule), shardTo(shard, endRule), completed);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger done = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int[] range : pending) {
+                futures.add(pool.submit(() -> {
+                    runShard(range[0], range[1]);
+                    System.out.println("Rules " + range[0] + "-" + range[1] + " done ("
+                            + done.incrementAndGet() + "/" + pending.size() + ")");
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IllegalStateException("Shard failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return pending.size();
+    }
+
+    private int shardFrom(int shard, int firstRule) {
+        return Math.max(firstRule, shard * shardSize);
+    }
+
+    private int shardTo(int shard, int endRule) {
+        return Math.min(endRule, (shard + 1) * shardSize);
+    }
+
+    /**
+     * Adds the parts of [from, to) that none of the completed ranges cover.
+     *
+     * @param completed the completed ranges, sorted by their first rule
+     */
+    private static void addGaps(List<int[]> pending, int from, int to, List<int[]> completed) {
+        int next = from;
+        for (int[] range : completed) {
+            if (range[0] >= to) {
+                break;
+            }
+            if (range[1] > next) {
+                if (range[0] > next) {
+                    pending.add(new int[] {next, range[0]});
+                }
+                next = range[1];
+            }
+        }
+        if (next < to) {
+            pending.add(new int[] {next, to});
+        }
+    }
+
+    /**
+     * Lists the rule ranges of the completed files in the output directory, sorted by their first rule.
+     */
+    private List<int[]> completedRanges() throws IOException {
+        List<int[]> ranges = new ArrayList<>();
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                int[] range = rangeOf(path);
+                if (range != null) {
+                    ranges.add(range);
+                }
+            }
+        }
+        ranges.sort(Comparator.comparingInt(range -> range[0]));
+        return ranges;
+    }
+
+    /**
+     * Gets the file the results for a range of rules are written to.
+     *
+     * @param from the first rule number of the range
+     * @param to one past the last rule number of the range
+     * @return the path of the completed range's CSV
+     */
+    public Path shardFile(int from, int to) {
+        return outputDirectory.resolve(String.format("rules-%06d-%06d.csv", from, to));
+    }
+
+    /**
+     * Describes everything besides the rule range that the results depend on.
+     */
+    private String manifest() {
+        return String.format(Locale.ROOT,
+                "board=%d\ngenerations=%d\nseed=%d\ndensity=%s\nexplode_density=%s\nmax_period=%d\n",
+                boardSize, maxGenerations, seed, density, explodeDensity, MAX_PERIOD);
+    }
+
+    /**
+     * Writes the manifest into a new output directory, or checks that it matches the one there.
+     */
+    private void checkManifest() throws IOException {
+        Path file = outputDirectory.resolve(MANIFEST);
+        String expected = manifest();
+        if (Files.exists(file)) {
+            String found = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            if (!found.equals(expected)) {
+                throw new IllegalStateException(outputDirectory + " holds a survey run with other parameters:\n"
+                        + found + "instead of:\n" + expected);
+            }
+            return;
+        }
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            if (files.anyMatch(path -> rangeOf(path) != null)) {
+                throw new IllegalStateException(outputDirectory + " holds shards without a manifest");
+            }
+        }
+        Path temporary = file.resolveSibling(MANIFEST + ".tmp");
+        Files.write(temporary, expected.getBytes(StandardCharsets.UTF_8));
+        moveIntoPlace(temporary, file);
+    }
+
+    private void runShard(int from, int to) throws IOException {
+        Path finished = shardFile(from, to);
+        Path temporary = finished.resolveSibling(finished.getFileName() + ".tmp");
+        BitSlicedSimulator simulator = new BitSlicedSimulator(boardSize, boardSize);
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            out.write(CSV_HEADER);
+            out.newLine();
+            for (int index = from; index < to; index++) {
+                out.write(explore(simulator, LifeRule.fromIndex(index)).toCsv());
+                out.newLine();
+            }
+        }
+        moveIntoPlace(temporary, finished);
+    }
+
+    /**
+     * Reads the rule range from a completed shard's file name.
+     *
+     * @return the first and end rule numbers, or null if the file is not a completed shard
+     */
+    private static int[] rangeOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith("rules-") || !name.endsWith(".csv")) {
+            return null;
+        }
+        String[] bounds = name.substring("rules-".length(), name.length() - ".csv".length()).split("-");
+        try {
+            return bounds.length == 2 ? new int[] {Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1])} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void moveIntoPlace(Path temporary, Path finished) throws IOException {
+        try {
+            Files.move(temporary, finished, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, finished, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Runs 64 soups under one rule.
+     *
+     * @param rule the rule to explore
+     * @return how the soups behaved
+     */
+    public RuleSummary explore(LifeRule rule) {
+        return explore(new BitSlicedSimulator(boardSize, boardSize), rule);
+    }
+
+    private RuleSummary explore(BitSlicedSimulator simulator, LifeRule rule) {
+        long[] seeds = new long[BitSlicedSimulator.BOARDS];
+        for (int board = 0; board < seeds.length; board++) {
+            seeds[board] = mix(seed ^ mix((long) rule.index() << 6 | board));
+        }
+        simulator.setRule(rule);
+        simulator.randomize(seeds, density);
+
+        int explodeLimit = (int) (explodeDensity * boardSize * boardSize);
+        int[] initial = simulator.getPopulations();
+        long[][] recent = new long[MAX_PERIOD][];
+        recent[0] = simulator.getHashes();
+
+        int[] status = new int[BitSlicedSimulator.BOARDS]; // 0 unsettled, or one of the SETTLED_ constants
+        int[] period = new int[BitSlicedSimulator.BOARDS];
+        int[] settledAt = new int[BitSlicedSimulator.BOARDS];
+        int unsettled = BitSlicedSimulator.BOARDS;
+        int generation = 0;
+        int[] populations = initial;
+
+        while (unsettled > 0 && generation < maxGenerations) {
+            simulator.nextGeneration();
+            generation++;
+            populations = simulator.getPopulations();
+            long[] hashes = simulator.getHashes();
+            for (int board = 0; board < status.length; board++) {
+                if (status[board] != 0) {
+                    continue;
+                }
+                if (populations[board] == 0) {
+                    status[board] = SETTLED_EXTINCT;
+                } else if (populations[board] > explodeLimit) {
+                    status[board] = SETTLED_EXPLODED;
+                } else {
+                    for (int p = 1; p <= Math.min(MAX_PERIOD, generation); p++) {
+                        if (recent[(generation - p) % MAX_PERIOD][board] == hashes[board]) {
+                            status[board] = SETTLED_PERIODIC;
+                            period[board] = p;
+                            break;
+                        }
+                    }
+                }
+                if (status[board] != 0) {
+                    settledAt[board] = status[board] == SETTLED_PERIODIC ? generation - period[board] : generation;
+                    unsettled--;
+                }
+            }
+            recent[generation % MAX_PERIOD] = hashes;
+        }
+
+        RuleSummary summary = new RuleSummary(rule, generation);
+        double growth = 0;
+        double stabilization = 0;
+        for (int board = 0; board < status.length; board++) {
+            growth += initial[board] == 0 ? 0 : (double) populations[board] / initial[board];
+            switch (status[board]) {
+                case SETTLED_EXTINCT:
+                    summary.extinct++;
+                    break;
+                case SETTLED_EXPLODED:
+                    summary.exploded++;
+                    break;
+                case SETTLED_PERIODIC:
+                    summary.periodic++;
+                    stabilization += settledAt[board];
+                    summary.maxPeriod = Math.max(summary.maxPeriod, period[board]);
+                    break;
+                default:
+                    summary.unsettled++;
+                    break;
+            }
+        }
+        summary.growth = growth / status.length;
+        summary.stabilization = summary.periodic == 0 ? -1 : stabilization / summary.periodic;
+        return summary;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+
+    /**
+     * How the 64 soups of one rule behaved.
+     */
+    public static final class RuleSummary {
+        private final LifeRule rule;
+        private final int generations;
+        private int extinct;
+        private int exploded;
+        private int periodic;
+        private int unsettled;
+        private double growth;
+        private double stabilization;
+        private int maxPeriod;
+
+        RuleSummary(LifeRule rule, int generations) {
+            this.rule = rule;
+            this.generations = generations;
+        }
+
+        public LifeRule getRule() {
+            return rule;
+        }
+
+        public int getGenerations() {
+            return generations;
+        }
+
+        public int getExtinct() {
+            return extinct;
+        }
+
+        public int getExploded() {
+            return exploded;
+        }
+
+        public int getPeriodic() {
+            return periodic;
+        }
+
+        public int getUnsettled() {
+            return unsettled;
+        }
+
+        /**
+         * Gets the mean ratio of final to starting population.
+         */
+        public double getGrowth() {
+            return growth;
+        }
+
+        /**
+         * Gets the mean generation at which the periodic soups first reached their cycle, or -1 if none did.
+         */
+        public double getStabilization() {
+            return stabilization;
+        }
+
+        public int getMaxPeriod() {
+            return maxPeriod;
+        }
+
+        /**
+         * Formats the summary as a row matching CSV_HEADER.
+         */
+        public String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.4f,%.1f,%d",
+                    rule, rule.index(), extinct, exploded, periodic, unsettled, generations, growth, stabilization, maxPeriod);
+        }
+    }
+
+    /**
+     * Explores the rule space from the command line.
+     * Arguments (all optional): output directory, first rule, end rule, board size, generations, threads.
+     * Running it again with the same arguments resumes where it stopped.
+     */
+    public static void main(String[] args) throws Exception {
+        Path output = Paths.get(args.length > 0 ? args[0] : "rule-survey");
+        int first = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int end = args.length > 2 ? Integer.parseInt(args[2]) : LifeRule.RULE_COUNT;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int generations = args.length > 4 ? Integer.parseInt(args[4]) : 256;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        RuleExplorer explorer = new RuleExplorer(output, size, generations, 1);
+        long start = System.nanoTime();
+        int ranges = explorer.run(first, end, threads);
+        System.out.printf("Ran %d ranges in %.1f s into %s%n", ranges, (System.nanoTime() - start) / 1e9, output);
+    }
+}
@@ -0,0 +1,571 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs many independent boards on a small, shared pool of worker threads, with no GUI and no
+ * thread or timer per board.
+ *
+ * <p>Workers take the runnable session that is next in line, run it for one time slice (the quantum)
+ * and put it back. The line is ordered by priority first; within a priority, sessions are scheduled
+ * by stride scheduling: each slice's running time divided by the session's weight is added to its
+ * pass, and the lowest pass goes next, so over time each session gets CPU time in proportion to its
+ * weight. A session that comes back from a pause starts at the current pass rather than with credit
+ * for the time it was away.
+ *
+ * <p>A session stops being scheduled when it is paused, when it has run its generation budget, when its
+ * board becomes stable (unchanged, or repeating with period 2), or, if an idle timeout has been set,
+ * when nobody has touched it within that time. Edits and touch() bring stable and idle sessions back.
+ */
+public class SessionHost implements AutoCloseable {
+    public static final long DEFAULT_QUANTUM_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    /**
+     * Whether a session is being scheduled, and if not, why.
+     */
+    public enum State {
+        RUNNING, PAUSED, STABLE, IDLE, BUDGET_SPENT, CLOSED
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition runnable = lock.newCondition();
+    private final PriorityQueue<Session> queue = new PriorityQueue<>(
+            Comparator.comparingInt((Session s) -> -s.priority).thenComparingDouble(s -> s.pass).thenComparingLong(s -> s.id));
+    private final List<Session> sessions = new ArrayList<>();
+    private final Thread[] workers;
+    private volatile long quantumNanos = DEFAULT_QUANTUM_NANOS;
+    private volatile long idleTimeoutNanos; // 0: sessions are never paused as idle
+    private double virtualTime; // pass of the last session taken from the queue
+    private long nextId;
+    private boolean closed;
+
+    /**
+     * Creates a host with one worker per available processor.
+     * Sessions run until they are paused, stable or out of budget; call setIdleTimeout() to also
+     * pause sessions that nobody touches.
+     */
+    public SessionHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a host and starts its workers. Idle sessions are not paused unless setIdleTimeout() is called.
+     *
+     * @param workerCount the number of worker threads
+     */
+    public SessionHost(int workerCount) {
+        workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(this::workLoop, "session-host-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Sets how long a session runs before the worker moves on (default 2 ms).
+     * A slice always runs at least one generation.
+     *
+     * @param quantumNanos the slice length in nanoseconds
+     */
+    public void setQuantum(long quantumNanos) {
+        this.quantumNanos = quantumNanos;
+    }
+
+    /**
+     * Sets how long a session may go untouched before it is paused as idle.
+     * By default sessions are never paused as idle, which suits headless boards nobody watches.
+     *
+     * @param idleTimeoutNanos the timeout in nanoseconds, or 0 to never pause idle sessions
+     */
+    public void setIdleTimeout(long idleTimeoutNanos) {
+        this.idleTimeoutNanos = idleTimeoutNanos;
+    }
+
+    /**
+     * Adds a running session with weight 1 and priority 0.
+     *
+     * @param name the session's name
+     * @param grid the board; the host owns it from now on, so read it through Session.snapshot()
+     * @return the new session
+     */
+    public Session create(String name, Grid grid) {
+        return create(name, grid, 1, 0);
+    }
+
+    /**
+     * Adds a running session.
+     *
+     * @param name the session's name
+     * @param grid the board; the host owns it from now on, so read it through Session.snapshot()
+     * @param weight the session's share of CPU time relative to others at its priority
+     * @param priority sessions with a higher priority always run first
+     * @return the new session
+     */
+    public Session create(String name, Grid grid, double weight, int priority) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Host is closed");
+            }
+            Session session = new Session(nextId++, name, grid, weight, priority);
+            sessions.add(session);
+            schedule(session);
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a session. A slice already running finishes first.
+     *
+     * @param session the session to remove
+     */
+    public void remove(Session session) {
+        lock.lock();
+        try {
+            sessions.remove(session);
+            queue.remove(session);
+            session.state = State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets every session on this host.
+     *
+     * @return a copy of the session list
+     */
+    public List<Session> getSessions() {
+        lock.lock();
+        try {
+            return new ArrayList<>(sessions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the workers after their current slices. Sessions are closed with the host.
+     * If interrupted while waiting for the workers, it returns early with the interrupt flag set.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            for (Session session : sessions) {
+                session.state = State.CLOSED;
+            }
+            runnable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Puts a session in line if it should run and is not already in line or running. Caller holds the lock.
+     */
+    private void schedule(Session session) {
+        if (session.state == State.RUNNING && !session.queued && !session.inSlice && !closed) {
+            session.pass = Math.max(session.pass, virtualTime);
+            session.queued = true;
+            queue.add(session);
+            runnable.signal();
+        }
+    }
+
+    private void workLoop() {
+        while (true) {
+            Session session;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closed) {
+                    runnable.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                session = queue.poll();
+                session.queued = false;
+                session.inSlice = true;
+                virtualTime = session.pass;
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            State outcome = session.runSlice(start + quantumNanos);
+            long elapsed = System.nanoTime() - start;
+
+            lock.lock();
+            try {
+                session.inSlice = false;
+                session.pass += elapsed / session.weight;
+                session.cpuNanos += elapsed;
+                if (session.state == State.RUNNING) {
+                    if (outcome == State.RUNNING && idleTimeoutNanos > 0 && System.nanoTime() - session.lastTouched > idleTimeoutNanos) {
+                        outcome = State.IDLE;
+                    }
+                    session.state = outcome;
+                }
+                if (session.state != State.RUNNING) {
+                    session.throughput = 0;
+                }
+                schedule(session);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * One board on the host.
+     */
+    public final class Session {
+        private final long id;
+        private final String name;
+        private final Grid grid;              // guarded by this session's monitor
+        private final EditQueue edits = new EditQueue();
+        private long[] words;                 // the board after the latest generation
+        private long[][] recentWords;         // the boards one and two generations before it
+        private final int[] recentHashes = new int[2]; // hashes of recentWords, checked before comparing them
+        private int hashesSeen;
+
+        // Guarded by the host lock
+        private State state = State.RUNNING;
+        private double weight;
+        private int priority;
+        private double pass;
+        private boolean queued;
+        private boolean inSlice;
+        private long cpuNanos;
+        private long generationBudget = Long.MAX_VALUE;
+
+        private volatile long generation;
+        private volatile long lastTouched = System.nanoTime();
+        private volatile double throughput;
+        private long windowStart = System.nanoTime();
+        private long windowGenerations;
+
+        private Session(long id, String name, Grid grid, double weight, int priority) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive, got " + weight);
+            }
+            this.id = id;
+            this.name = name;
+            this.grid = grid;
+            this.weight = weight;
+            this.priority = priority;
+            this.words = new long[grid.getHeight() * grid.getWordsPerRow()];
+            this.recentWords = new long[2][words.length];
+        }
+
+        /**
+         * Gets the session's name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets whether the session is being scheduled, and if not, why.
+         *
+         * @return the state
+         */
+        public State getState() {
+            lock.lock();
+            try {
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Gets the number of generations run so far.
+         *
+         * @return the generation count
+         */
+        public long getGeneration() {
+            return generation;
+        }
+
+        /**
+         * Gets the generations per second over the last measured second of wall-clock time.
+         *
+         * @return the recent throughput
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        /**
+         * Gets the total worker time spent on this session.
+         *
+         * @return the CPU time in nanoseconds
+         */
+        public long getCpuNanos() {
+            lock.lock();
+            try {
+                return cpuNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Sets the session's share of CPU time relative to others at the same priority.
+         *
+         * @param weight a positive weight; a session with weight 2 gets twice the time of one with weight 1
+         */
+        public void setWeight(double weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive, got " + weight);
+            }
+            lock.lock();
+            try {
+                this.weight = weight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Sets the session's priority. Runnable sessions with a higher priority always run first.
+         *
+         * @param priority the priority
+         */
+        public void setPriority(int priority) {
+            lock.lock();
+            try {
+                boolean requeue = queue.remove(this);
+                this.priority = priority;
+                if (requeue) {
+                    queue.add(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Sets the generation count at which the session stops being scheduled.
+         * Raising it again resumes a session that had spent its budget.
+         *
+         * @param generationBudget the total generations the session may run
+         */
+        public void setGenerationBudget(long generationBudget) {
+            lock.lock();
+            try {
+                this.generationBudget = generationBudget;
+                if (state == State.BUDGET_SPENT && generation < generationBudget) {
+                    state = State.RUNNING;
+                    schedule(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops scheduling the session until resume() is called.
+         */
+        public void pause() {
+            lock.lock();
+            try {
+                if (state != State.CLOSED) {
+                    state = State.PAUSED;
+                    queue.remove(this);
+                    queued = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Schedules a paused, stable or idle session again, unless its budget is spent.
+         */
+        public void resume() {
+            lastTouched = System.nanoTime();
+            lock.lock();
+            try {
+                if (state == State.PAUSED || state == State.STABLE || state == State.IDLE) {
+                    state = generation < generationBudget ? State.RUNNING : State.BUDGET_SPENT;
+                    schedule(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Marks the session as in use, so it is not paused as idle; an idle session resumes.
+         */
+        public void touch() {
+            lastTouched = System.nanoTime();
+            lock.lock();
+            try {
+                if (state == State.IDLE) {
+                    state = generation < generationBudget ? State.RUNNING : State.BUDGET_SPENT;
+                    schedule(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Submits an edit, applied before the session's next generation. Safe to call from any thread.
+         * An edit touches the session and wakes it if it had become stable or idle.
+         *
+         * @param edit the edit
+         */
+        public void edit(EditQueue.Edit edit) {
+            edits.submit(edit);
+            lastTouched = System.nanoTime();
+            lock.lock();
+            try {
+                if (state == State.STABLE || state == State.IDLE) {
+                    state = generation < generationBudget ? State.RUNNING : State.BUDGET_SPENT;
+                    schedule(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Takes a copy-on-write snapshot of the current board, with any pending edits applied.
+         * Waits for a running slice to end, but only for as long as it takes to share the rows;
+         * the session keeps stepping while the snapshot is read.
+         *
+         * @return a snapshot of the board
+         */
+        public Grid snapshot() {
+            lastTouched = System.nanoTime();
+            synchronized (this) {
+                if (edits.applyTo(grid) > 0) {
+                    hashesSeen = 0;
+                }
+                return grid.snapshot();
+            }
+        }
+
+        /**
+         * Runs generations until the deadline, the budget, or the board becomes stable.
+         *
+         * @return RUNNING, STABLE or BUDGET_SPENT
+         */
+        private State runSlice(long deadline) {
+            long budget;
+            lock.lock();
+            try {
+                budget = generationBudget;
+            } finally {
+                lock.unlock();
+            }
+
+            State outcome = State.RUNNING;
+            long ran = 0;
+            synchronized (this) {
+                if (edits.applyTo(grid) > 0) {
+                    hashesSeen = 0;
+                }
+                do {
+                    if (generation >= budget) {
+                        outcome = State.BUDGET_SPENT;
+                        break;
+                    }
+                    grid.nextGeneration();
+                    generation++;
+                    ran++;
+
+                    grid.copyWords(words);
+                    int hash = Arrays.hashCode(words);
+                    if (repeats(hash, 0) || repeats(hash, 1)) {
+                        outcome = State.STABLE;
+                        break;
+                    }
+
+                    // The oldest board's array takes the next generation
+                    long[] oldest = recentWords[1];
+                    recentWords[1] = recentWords[0];
+                    recentWords[0] = words;
+                    words = oldest;
+                    recentHashes[1] = recentHashes[0];
+                    recentHashes[0] = hash;
+                    hashesSeen++;
+                } while (System.nanoTime() < deadline);
+            }
+
+            windowGenerations += ran;
+            long now = System.nanoTime();
+            if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+                throughput = windowGenerations * 1e9 / (now - windowStart);
+                windowStart = now;
+                windowGenerations = 0;
+            }
+            return outcome;
+        }
+
+        /**
+         * Checks whether the latest board equals the board back + 1 generations before it.
+         * Only boards with the same hash are compared word by word.
+         */
+        private boolean repeats(int hash, int back) {
+            return hashesSeen > back && hash == recentHashes[back] && Arrays.equals(words, recentWords[back]);
+        }
+
+        @Override
+        public String toString() {
+            return name + " [" + getState() + ", generation " + generation + String.format(", %.0f gen/s]", throughput);
+        }
+    }
+
+    /**
+     * Runs a few hundred random boards with mixed weights and prints each weight group's throughput.
+     */
+    public static void main(String[] args) throws Exception {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        try (SessionHost host = new SessionHost()) {
+            for (int i = 0; i < boards; i++) {
+                Grid grid = new Grid(64, 64);
+                grid.randomize(0.35, i);
+                host.create("board-" + i, grid, 1 + i % 3, 0);
+            }
+            for (int second = 1; second <= 5; second++) {
+                Thread.sleep(1000);
+                double[] rates = new double[3];
+                int[] running = new int[3];
+                for (Session session : host.getSessions()) {
+                    int group = (int) (session.id % 3);
+                    rates[group] += session.getThroughput();
+                    if (session.getState() == State.RUNNING) {
+                        running[group]++;
+                    }
+                }
+                System.out.printf("%ds: weight 1: %.0f gen/s (%d running), weight 2: %.0f gen/s (%d), weight 3: %.0f gen/s (%d)%n",
+                        second, rates[0], running[0], rates[1], running[1], rates[2], running[2]);
+            }
+        }
+    }
+}
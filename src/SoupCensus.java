@@ -0,0 +1,220 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes a census of the objects left on a grid after a soup has settled.
+ * Live cells are split into connected objects, and each object is classified by looking up its
+ * canonical form in a PatternIndex. Some phases of oscillators and spaceships, such as the Toad or
+ * the Pulsar, fall apart into pieces with gaps between them, so the cells are first grouped at the
+ * widest reach any indexed shape needs, and a group the index does not know is split again at the
+ * next smaller reach, down to the census's own reach. Objects that are not in the index are tallied
+ * under their canonical code instead of a name. A known shape that settled within its own reach of
+ * another object is only found as separate pieces.
+ * One census can be shared by several soup-running threads: census() has no shared state and
+ * record() adds to thread-safe running totals.
+ */
+public class SoupCensus {
+    private final PatternIndex index;
+    private final int reach;
+    private final int[] mergeReaches; // the index's reaches wider than reach, widest first
+    private final Map<String, LongAdder> totals = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a census over the Pattern library where cells touching (including diagonally)
+     * belong to the same object.
+     */
+    public SoupCensus() {
+        this(new PatternIndex(), 1);
+    }
+
+    /**
+     * Creates a census with a custom index and connection distance.
+     * Shapes in the index are still found when their pieces lie further apart than the reach;
+     * a reach of 2 also merges unknown objects that settled close together.
+     *
+     * @param index the index used to classify objects
+     * @param reach the largest row or column distance between two cells of an unknown object
+     */
+    public SoupCensus(PatternIndex index, int reach) {
+        if (reach < 1) {
+            throw new IllegalArgumentException("Reach must be at least 1");
+        }
+        this.index = index;
+        this.reach = reach;
+        int[] reaches = index.getReaches();
+        int wider = 0;
+        while (wider < reaches.length && reaches[reaches.length - 1 - wider] > reach) {
+            wider++;
+        }
+        mergeReaches = new int[wider];
+        for (int i = 0; i < wider; i++) {
+            mergeReaches[i] = reaches[reaches.length - 1 - i];
+        }
+    }
+
+    /**
+     * Splits the grid into objects and counts each kind.
+     *
+     * @param grid the settled grid
+     * @return the number of objects of each kind, keyed by pattern name or canonical code
+     */
+    public Map<String, Integer> census(Grid grid) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (PatternIndex.CanonicalForm object : findObjects(grid)) {
+            counts.merge(classify(object), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Takes a census of the grid and adds it to the running totals.
+     *
+     * @param grid the settled grid
+     * @return the census of this grid alone
+     */
+    public Map<String, Integer> record(Grid grid) {
+        Map<String, Integer> counts = census(grid);
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            totals.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the running totals of every recorded census, most common objects first.
+     *
+     * @return a snapshot of the totals
+     */
+    public Map<String, Long> getTotals() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : totals.entrySet()) {
+            entries.add(Map.entry(entry.getKey(), entry.getValue().sum()));
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    /**
+     * Names an object, falling back to its canonical code when it is not in the index.
+     *
+     * @param object the canonical form of the object
+     * @return the object's name
+     */
+    public String classify(PatternIndex.CanonicalForm object) {
+        String name = index.lookup(object);
+        return name != null ? name : object.toString();
+    }
+
+    /**
+     * Finds the objects on a grid, keeping the pieces of indexed shapes together.
+     *
+     * @param grid the grid to split
+     * @return the canonical form of each object
+     */
+    public List<PatternIndex.CanonicalForm> findObjects(Grid grid) {
+        int[] rows = new int[grid.getPopulation()];
+        int[] cols = new int[rows.length];
+        int count = 0;
+        PrimitiveIterator.OfLong live = grid.liveCellIterator();
+        while (live.hasNext()) {
+            long cell = live.nextLong();
+            rows[count] = Grid.cellRow(cell);
+            cols[count] = Grid.cellCol(cell);
+            count++;
+        }
+        List<PatternIndex.CanonicalForm> objects = new ArrayList<>();
+        if (count > 0) {
+            collect(rows, cols, 0, objects);
+        }
+        return objects;
+    }
+
+    /**
+     * Splits cells at the reach for this level and keeps the pieces the index knows,
+     * splitting the others again at the next level.
+     */
+    private void collect(int[] rows, int[] cols, int level, List<PatternIndex.CanonicalForm> objects) {
+        boolean last = level == mergeReaches.length;
+        for (int[][] piece : split(rows, cols, last ? reach : mergeReaches[level])) {
+            PatternIndex.CanonicalForm form = PatternIndex.canonicalForm(piece[0], piece[1], piece[0].length);
+            if (last || index.lookup(form) != null) {
+                objects.add(form);
+            } else {
+                collect(piece[0], piece[1], level + 1, objects);
+            }
+        }
+    }
+
+    /**
+     * Splits cells into connected pieces with a flood fill.
+     *
+     * @return the rows and columns of each piece's cells
+     */
+    private static List<int[][]> split(int[] rows, int[] cols, int reach) {
+        int minRow = Integer.MAX_VALUE;
+        int minCol = Integer.MAX_VALUE;
+        int maxRow = Integer.MIN_VALUE;
+        int maxCol = Integer.MIN_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            minRow = Math.min(minRow, rows[i]);
+            maxRow = Math.max(maxRow, rows[i]);
+            minCol = Math.min(minCol, cols[i]);
+            maxCol = Math.max(maxCol, cols[i]);
+        }
+        int height = maxRow - minRow + 1;
+        int width = maxCol - minCol + 1;
+        byte[][] cells = new byte[height][width]; // 1: alive, 2: already in a piece
+        for (int i = 0; i < rows.length; i++) {
+            cells[rows[i] - minRow][cols[i] - minCol] = 1;
+        }
+
+        // The queue arrays hold one piece at a time, in box coordinates
+        int[] queueRows = new int[rows.length];
+        int[] queueCols = new int[rows.length];
+        List<int[][]> pieces = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            int startRow = rows[i] - minRow;
+            int startCol = cols[i] - minCol;
+            if (cells[startRow][startCol] == 2) {
+                continue;
+            }
+            cells[startRow][startCol] = 2;
+            queueRows[0] = startRow;
+            queueCols[0] = startCol;
+            int count = 1;
+            for (int head = 0; head < count; head++) {
+                int row = queueRows[head];
+                int col = queueCols[head];
+                for (int r = Math.max(0, row - reach); r <= Math.min(height - 1, row + reach); r++) {
+                    for (int c = Math.max(0, col - reach); c <= Math.min(width - 1, col + reach); c++) {
+                        if (cells[r][c] == 1) {
+                            cells[r][c] = 2;
+                            queueRows[count] = r;
+                            queueCols[count] = c;
+                            count++;
+                        }
+                    }
+                }
+            }
+            int[] pieceRows = new int[count];
+            int[] pieceCols = new int[count];
+            for (int j = 0; j < count; j++) {
+                pieceRows[j] = queueRows[j] + minRow;
+                pieceCols[j] = queueCols[j] + minCol;
+            }
+            pieces.add(new int[][] {pieceRows, pieceCols});
+        }
+        return pieces;
+    }
+}
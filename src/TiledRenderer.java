@@ -0,0 +1,197 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Draws a Grid as a mosaic of cached tile images, one per Grid tile.
+ * On each paint, the visible tiles whose version has moved on since they were last drawn have their
+ * bits copied on the painting thread, which is only a word per row, and are then turned into pixels
+ * in parallel on a thread pool. Until a tile's new image is ready, its previous image is shown; when it
+ * is ready, the callback asks for another paint. Tiles that did not change are never redrawn, and
+ * tiles that scroll out of view are dropped from the cache.
+ */
+public class TiledRenderer {
+    private final Executor executor;
+    private final Runnable onTileReady;
+    private final Map<Long, Tile> tiles = new ConcurrentHashMap<>();
+    private Grid grid; // the grid the cached tiles were drawn from
+    private int cellSize;
+    private int aliveColor = Color.BLACK.getRGB();
+
+    /**
+     * Creates a renderer that draws tiles on the common fork-join pool.
+     *
+     * @param cellSize the size of a cell in pixels
+     * @param onTileReady called from a worker thread whenever a tile image is ready, usually to repaint
+     */
+    public TiledRenderer(int cellSize, Runnable onTileReady) {
+        this(ForkJoinPool.commonPool(), cellSize, onTileReady);
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param executor the threads that draw tiles
+     * @param cellSize the size of a cell in pixels
+     * @param onTileReady called from a worker thread whenever a tile image is ready, usually to repaint
+     */
+    public TiledRenderer(Executor executor, int cellSize, Runnable onTileReady) {
+        this.executor = executor;
+        this.cellSize = cellSize;
+        this.onTileReady = onTileReady;
+    }
+
+    /**
+     * Sets the size of a cell in pixels. Every tile is drawn again.
+     *
+     * @param cellSize the new cell size
+     */
+    public void setCellSize(int cellSize) {
+        if (cellSize != this.cellSize) {
+            this.cellSize = cellSize;
+            tiles.clear();
+        }
+    }
+
+    /**
+     * Sets the color of live cells. Every tile is drawn again.
+     *
+     * @param color the live-cell color
+     */
+    public void setAliveColor(Color color) {
+        aliveColor = color.getRGB();
+        tiles.clear();
+    }
+
+    /**
+     * Gets the number of tile images in the cache.
+     *
+     * @return the cached tile count
+     */
+    public int getCachedTiles() {
+        return tiles.size();
+    }
+
+    /**
+     * Draws the live cells of the grid that fall inside the clip; dead cells are left transparent.
+     * Must be called on the thread that changes the grid (in the GUI, the event dispatch thread).
+     * The clip may be only part of what is on screen (a scroll or a single tile's repaint), so tiles
+     * are kept as long as they are in the visible area, not just the clip.
+     *
+     * @param g the graphics to draw on, with the grid's top-left cell at (0, 0)
+     * @param grid the grid to draw
+     * @param clip the area to draw, in pixels
+     * @param visible the area on screen, in pixels, such as the component's visible rectangle
+     */
+    public void paint(Graphics2D g, Grid grid, Rectangle clip, Rectangle visible) {
+        if (grid != this.grid) {
+            tiles.clear();
+            this.grid = grid;
+        }
+
+        int tilePixels = Grid.TILE_SIZE * cellSize;
+        int firstTileRow = Math.max(0, clip.y / tilePixels);
+        int lastTileRow = Math.min(grid.getTileRows() - 1, (clip.y + clip.height - 1) / tilePixels);
+        int firstTileCol = Math.max(0, clip.x / tilePixels);
+        int lastTileCol = Math.min(grid.getTileCols() - 1, (clip.x + clip.width - 1) / tilePixels);
+
+        for (int tileRow = firstTileRow; tileRow <= lastTileRow; tileRow++) {
+            for (int tileCol = firstTileCol; tileCol <= lastTileCol; tileCol++) {
+                Tile tile = tiles.computeIfAbsent(key(tileRow, tileCol), k -> new Tile());
+                long version = grid.getTileVersion(tileRow, tileCol);
+                if (tile.requestedVersion != version) {
+                    tile.requestedVersion = version;
+                    requestImage(grid, tile, tileRow, tileCol, version);
+                }
+                BufferedImage image = tile.image;
+                if (image != null) {
+                    g.drawImage(image, tileCol * tilePixels, tileRow * tilePixels, null);
+                }
+            }
+        }
+
+        // Forget tiles that are no longer in view
+        int firstVisibleRow = visible.y / tilePixels;
+        int lastVisibleRow = (visible.y + visible.height - 1) / tilePixels;
+        int firstVisibleCol = visible.x / tilePixels;
+        int lastVisibleCol = (visible.x + visible.width - 1) / tilePixels;
+        tiles.keySet().removeIf(key -> {
+            int tileRow = (int) (key >>> 32);
+            int tileCol = (int) (long) key;
+            return tileRow < firstVisibleRow || tileRow > lastVisibleRow
+                    || tileCol < firstVisibleCol || tileCol > lastVisibleCol;
+        });
+    }
+
+    /**
+     * Copies a tile's bits and has a worker turn them into an image.
+     */
+    private void requestImage(Grid grid, Tile tile, int tileRow, int tileCol, long version) {
+        int top = tileRow * Grid.TILE_SIZE;
+        int left = tileCol * Grid.TILE_SIZE;
+        int rows = Math.min(Grid.TILE_SIZE, grid.getHeight() - top);
+        int cols = Math.min(Grid.TILE_SIZE, grid.getWidth() - left);
+        long[] bits = new long[rows];
+        grid.copyRegion(top, left, rows, cols, bits);
+        int size = cellSize;
+        int color = aliveColor;
+
+        executor.execute(() -> {
+            BufferedImage image = drawTile(bits, cols, size, color);
+            synchronized (tile) {
+                if (version >= tile.imageVersion) {
+                    tile.image = image;
+                    tile.imageVersion = version;
+                }
+            }
+            onTileReady.run();
+        });
+    }
+
+    /**
+     * Turns one tile's rows of bits into pixels, writing straight into the image's pixel array.
+     */
+    private static BufferedImage drawTile(long[] bits, int cols, int cellSize, int color) {
+        int pixelWidth = cols * cellSize;
+        BufferedImage image = new BufferedImage(pixelWidth, bits.length * cellSize, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int row = 0; row < bits.length; row++) {
+            long word = bits[row];
+            if (word == 0) {
+                continue;
+            }
+            int rowStart = row * cellSize * pixelWidth;
+            while (word != 0) {
+                int col = Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int start = rowStart + col * cellSize;
+                Arrays.fill(pixels, start, start + cellSize, color);
+            }
+            // The other pixel rows of this cell row are the same as the first
+            for (int line = 1; line < cellSize; line++) {
+                System.arraycopy(pixels, rowStart, pixels, rowStart + line * pixelWidth, pixelWidth);
+            }
+        }
+        return image;
+    }
+
+    private static long key(int tileRow, int tileCol) {
+        return (long) tileRow << 32 | tileCol & 0xFFFFFFFFL;
+    }
+
+    /**
+     * The cached image of one tile.
+     */
+    private static final class Tile {
+        private long requestedVersion = -1; // only touched by the painting thread
+        private volatile BufferedImage image;
+        private long imageVersion = -1;     // guarded by the tile
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Checks that FrameClient fails with an IOException, rather than spinning, on frames whose
+ * compressed body is cut short or ends before the frame's size.
+ * Run with the classes from src on the class path; it throws AssertionError on the first failure.
+ */
+public class FrameClientTest {
+    private static final int ROWS = 64;
+    private static final int COLS = 64;
+
+    public static void main(String[] args) throws Exception {
+        byte[] full = compress(new byte[ROWS * COLS / 8]);
+        checkRejected("a truncated body", Arrays.copyOf(full, full.length / 2));
+        checkRejected("a body that ends early", compress(new byte[ROWS * COLS / 16]));
+        System.out.println("FrameClientTest passed");
+    }
+
+    /**
+     * Serves one keyframe with the given body and checks the client rejects it within a few seconds.
+     */
+    private static void checkRejected(String what, byte[] body) throws Exception {
+        // Daemon threads, so a client stuck in its inflate loop cannot keep the test running
+        ExecutorService threads = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            threads.submit(() -> {
+                try (SocketChannel viewer = server.accept()) {
+                    FrameServer.readFully(viewer, ByteBuffer.allocate(20));
+                    ByteBuffer frame = ByteBuffer.allocate(FrameServer.HEADER_BYTES + body.length);
+                    frame.put(FrameServer.KEYFRAME).putInt(0).putInt(ROWS).putInt(COLS).putInt(body.length).put(body).flip();
+                    while (frame.hasRemaining()) {
+                        viewer.write(frame);
+                    }
+                    // Keep the connection open, so the client can only fail by noticing the bad body
+                    Thread.sleep(10_000);
+                }
+                return null;
+            });
+            Future<?> received = threads.submit(() -> {
+                try (FrameClient client = new FrameClient("localhost", port, 0, 0, ROWS, COLS, 10)) {
+                    client.receiveFrame();
+                }
+                return null;
+            });
+            try {
+                received.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("receiveFrame() accepts " + what);
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof IOException)) {
+                    throw new AssertionError("receiveFrame() fails on " + what + " with " + e.getCause(), e);
+                }
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] compressed = new byte[raw.length + 64];
+        int length = deflater.deflate(compressed);
+        deflater.end();
+        return Arrays.copyOf(compressed, length);
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Checks that BlitMode.REPLACE overwrites a ragged pattern's whole bounding box, including the cells
+ * past the end of its short rows, through blit, blitAll and Pattern.placeOnGrid, and that the other
+ * engines' placePattern methods place the same cells.
+ * Run with the classes from src on the class path; it throws AssertionError on the first failure.
+ */
+public class GridBlitTest {
+    // Row 0 is one cell long, row 1 is empty, row 2 is the widest at four cells
+    private static final Pattern RAGGED = new Pattern("Ragged", new boolean[][] {
+            {true},
+            {},
+            {false, true, false, true}
+    });
+    // A filled 5x6 grid after the pattern replaces the box at row 1, column 1
+    private static final String[] EXPECTED = {
+            "######",
+            "##...#",
+            "#....#",
+            "#.#.##",
+            "######"
+    };
+
+    public static void main(String[] args) {
+        Grid grid = filled();
+        grid.blit(RAGGED.toPacked(), 1, 1, BlitMode.REPLACE);
+        check(grid, "blit");
+
+        grid = filled();
+        grid.blitAll(List.of(RAGGED.toPacked().at(1, 1, BlitMode.REPLACE)));
+        check(grid, "blitAll");
+
+        grid = filled();
+        RAGGED.placeOnGrid(grid, 1, 1);
+        check(grid, "placeOnGrid");
+
+        GenerationsGrid generations = new GenerationsGrid(EXPECTED.length, EXPECTED[0].length(), GenerationsRule.conway());
+        BitSlicedSimulator sliced = new BitSlicedSimulator(EXPECTED.length, EXPECTED[0].length());
+        for (int row = 0; row < EXPECTED.length; row++) {
+            for (int col = 0; col < EXPECTED[0].length(); col++) {
+                generations.setState(row, col, 1);
+                sliced.setCellState(0, row, col, true);
+            }
+        }
+        generations.placePattern(RAGGED, 1, 1);
+        check((row, col) -> generations.getState(row, col) == 1, "GenerationsGrid.placePattern");
+        sliced.placePattern(0, RAGGED, 1, 1);
+        check((row, col) -> sliced.isAlive(0, row, col), "BitSlicedSimulator.placePattern");
+        if (RAGGED.getWidth() != 4) {
+            throw new AssertionError("a pattern's width is its longest row, not " + RAGGED.getWidth());
+        }
+
+        // A 70-column pattern whose short row ends in the first word checks the clearing spans words
+        boolean[][] wide = new boolean[2][];
+        wide[0] = new boolean[] {true};
+        wide[1] = new boolean[70];
+        wide[1][69] = true;
+        grid = new Grid(2, 80);
+        for (int col = 0; col < 80; col++) {
+            grid.setCellState(0, col, true);
+        }
+        grid.blit(new Pattern("Wide", wide).toPacked(), 0, 0, BlitMode.REPLACE);
+        for (int col = 0; col < 80; col++) {
+            boolean expected = col == 0 || col >= 70;
+            if (grid.isAlive(0, col) != expected) {
+                throw new AssertionError("wide blit leaves column " + col + (expected ? " dead" : " alive"));
+            }
+        }
+        System.out.println("GridBlitTest passed");
+    }
+
+    private static Grid filled() {
+        Grid grid = new Grid(EXPECTED.length, EXPECTED[0].length());
+        for (int row = 0; row < grid.getHeight(); row++) {
+            for (int col = 0; col < grid.getWidth(); col++) {
+                grid.setCellState(row, col, true);
+            }
+        }
+        return grid;
+    }
+
+    private static void check(Grid grid, String how) {
+        check(grid::isAlive, how);
+    }
+
+    private static void check(BiPredicate<Integer, Integer> alive, String how) {
+        for (int row = 0; row < EXPECTED.length; row++) {
+            for (int col = 0; col < EXPECTED[row].length(); col++) {
+                boolean expected = EXPECTED[row].charAt(col) == '#';
+                if (alive.test(row, col) != expected) {
+                    throw new AssertionError(how + " leaves cell " + row + "," + col + (expected ? " dead" : " alive"));
+                }
+            }
+        }
+    }
+}
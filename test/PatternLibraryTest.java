@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that PatternLibrary keeps every pattern reachable when names clash: files sharing a name
+ * with a built-in pattern or with each other are listed by their path, and register() refuses a
+ * name that is taken.
+ * Run with the classes from src on the class path; it throws AssertionError on the first failure.
+ */
+public class PatternLibraryTest {
+    private static final String GLIDER_RLE = "x = 3, y = 3\nbo$2bo$3o!\n";
+    private static final String BLINKER_RLE = "x = 3, y = 1\n3o!\n";
+    private static final String BLOCK_CELLS = "OO\nOO\n";
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("patterns");
+        try {
+            write(directory.resolve("Glider.rle"), GLIDER_RLE);
+            write(directory.resolve("Unique.rle"), BLINKER_RLE);
+            write(directory.resolve("a/Twin.rle"), BLINKER_RLE);
+            write(directory.resolve("b/Twin.rle"), GLIDER_RLE);
+            write(directory.resolve("b/Twin.cells"), BLOCK_CELLS);
+
+            PatternLibrary library = new PatternLibrary();
+            library.addBuiltIns();
+            int builtIns = library.size();
+            check(library.addDirectory(directory) == 5, "every file is registered");
+            check(library.size() == builtIns + 5, "no pattern replaces another");
+
+            check(library.get("Glider").getHeight() == 3 && library.contains("Glider.rle"),
+                    "the built-in Glider stays and the file is listed by its path");
+            check(library.contains("Unique"), "a file with a free name keeps its file name");
+            check(library.get("Twin").getHeight() == 1, "the first Twin keeps its file name");
+            check(library.get("b/Twin.cells").getWidth() == 2, "the second Twin is listed by its path");
+            check(library.get("b/Twin.rle").getHeight() == 3, "the third Twin is listed by its path");
+
+            try {
+                library.register("Block", "Still Lifes", Pattern::block);
+                throw new AssertionError("register() accepts a name that is taken");
+            } catch (IllegalArgumentException expected) {
+                // The built-in Block keeps its name
+            }
+        } finally {
+            delete(directory);
+        }
+        System.out.println("PatternLibraryTest passed");
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes());
+    }
+
+    private static void delete(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.forEach(paths::add);
+        }
+        paths.sort(Comparator.reverseOrder());
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            throw new AssertionError(expectation);
+        }
+    }
+}
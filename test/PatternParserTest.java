@@ -0,0 +1,34 @@
+/**
+ * Checks that PatternParser rejects oversized RLE headers and runs with its usual exception
+ * instead of allocating them.
+ * Run with the classes from src on the class path; it throws AssertionError on the first failure.
+ */
+public class PatternParserTest {
+
+    public static void main(String[] args) {
+        Pattern glider = PatternParser.parseRle("Glider", "x = 3, y = 3\nbo$2bo$3o!");
+        check(glider.getHeight() == 3 && glider.getWidth() == 3, "a normal header still sizes the pattern");
+
+        rejects("x = 100000, y = 100000\nbo$2bo$3o!", "a header beyond MAX_SIZE");
+        rejects("x = 10000, y = 10000\no!", "a header beyond MAX_CELLS");
+        rejects("x = -3, y = 3\no!", "a negative header");
+        rejects("x = 3, y = 3\n999999999$o!", "a row run beyond MAX_SIZE");
+        rejects("x = 3, y = 3\n16000b16000bo!", "columns beyond MAX_SIZE");
+        System.out.println("PatternParserTest passed");
+    }
+
+    private static void rejects(String rle, String what) {
+        try {
+            PatternParser.parseRle("Test", rle);
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError("parseRle() accepts " + what);
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            throw new AssertionError(expectation);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that RuleExplorer resumes a survey written with another shard size without running or
+ * writing any rule twice.
+ * Run with the classes from src on the class path; it throws AssertionError on the first failure.
+ */
+public class RuleExplorerTest {
+    private static final int BOARD_SIZE = 16;
+    private static final int GENERATIONS = 24;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("rule-survey");
+        try {
+            check(explorer(directory, 8).run(0, 32, 2) == 4, "first run writes four shards");
+            checkEachRuleOnce(directory, 32);
+
+            // A wider shard size skips the rules on disk and only runs the rest
+            check(explorer(directory, 32).run(0, 64, 2) == 1, "wider shards run only the new rules");
+            checkEachRuleOnce(directory, 64);
+
+            // A narrower shard size finds every rule covered by the wider files
+            check(explorer(directory, 5).run(0, 64, 2) == 0, "narrower shards find nothing left to run");
+
+            // A gap inside a wider shard is filled without rerunning the rest of the shard
+            Files.delete(directory.resolve("rules-000008-000016.csv"));
+            check(explorer(directory, 64).run(0, 64, 2) == 1, "only the missing range is run again");
+            checkEachRuleOnce(directory, 64);
+            check(Files.exists(directory.resolve("rules-000008-000016.csv")), "the gap keeps its own file");
+        } finally {
+            delete(directory);
+        }
+        System.out.println("RuleExplorerTest passed");
+    }
+
+    private static RuleExplorer explorer(Path directory, int shardSize) {
+        RuleExplorer explorer = new RuleExplorer(directory, BOARD_SIZE, GENERATIONS, 1);
+        explorer.setShardSize(shardSize);
+        return explorer;
+    }
+
+    /**
+     * Checks that the CSV rows on disk hold rules 0 to endRule - 1 once each.
+     */
+    private static void checkEachRuleOnce(Path directory, int endRule) throws IOException {
+        int[] seen = new int[endRule];
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (!path.getFileName().toString().endsWith(".csv")) {
+                    continue;
+                }
+                List<String> lines = Files.readAllLines(path);
+                check(lines.get(0).equals(RuleExplorer.CSV_HEADER), path + " starts with the header");
+                for (String line : lines.subList(1, lines.size())) {
+                    int index = Integer.parseInt(line.split(",")[1]);
+                    check(index < endRule, "rule " + index + " is in the explored range");
+                    seen[index]++;
+                }
+            }
+        }
+        for (int index = 0; index < endRule; index++) {
+            check(seen[index] == 1, "rule " + index + " is written once, not " + seen[index] + " times");
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.forEach(paths::add);
+        }
+        paths.sort(Comparator.reverseOrder());
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            throw new AssertionError(expectation);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Map;
+
+/**
+ * Checks that SoupCensus names oscillators and spaceships in every phase, including the phases
+ * that fall apart into pieces, and still tells nearby objects apart.
+ * Run with the classes from src on the class path; it throws AssertionError on the first failure.
+ */
+public class SoupCensusTest {
+    private static final int MARGIN = 24;
+
+    public static void main(String[] args) {
+        SoupCensus census = new SoupCensus();
+        checkEveryPhase(census, Pattern.toad(), 2);
+        checkEveryPhase(census, Pattern.beacon(), 2);
+        checkEveryPhase(census, Pattern.pulsar(), 3);
+        checkEveryPhase(census, Pattern.glider(), 4);
+        checkEveryPhase(census, Pattern.lightweightSpaceship(), 4);
+        checkEveryPhase(census, Pattern.middleweightSpaceship(), 4);
+        checkEveryPhase(census, Pattern.heavyweightSpaceship(), 4);
+
+        // A Toad in its split phase next to a block far enough away to stay separate
+        Grid grid = new Grid(40, 40);
+        Pattern.toad().placeOnGrid(grid, 10, 10);
+        grid.nextGeneration();
+        Pattern.block().placeOnGrid(grid, 10, 20);
+        Map<String, Integer> counts = census.census(grid);
+        check(counts.equals(Map.of("Toad", 1, "Block", 1)), "split Toad beside a Block: " + counts);
+
+        // Two blocks a cell apart are two objects, not one unknown shape
+        grid = new Grid(20, 20);
+        Pattern.block().placeOnGrid(grid, 5, 5);
+        Pattern.block().placeOnGrid(grid, 5, 8);
+        counts = census.census(grid);
+        check(counts.equals(Map.of("Block", 2)), "two close Blocks: " + counts);
+        System.out.println("SoupCensusTest passed");
+    }
+
+    /**
+     * Steps a pattern through its period on an empty grid and checks each phase is one named object.
+     */
+    private static void checkEveryPhase(SoupCensus census, Pattern pattern, int period) {
+        Grid grid = new Grid(pattern.getHeight() + 2 * MARGIN, pattern.getWidth() + 2 * MARGIN);
+        pattern.placeOnGrid(grid, MARGIN, MARGIN);
+        for (int phase = 0; phase < period; phase++) {
+            Map<String, Integer> counts = census.census(grid);
+            check(counts.equals(Map.of(pattern.getName(), 1)),
+                    pattern.getName() + " in phase " + phase + ": " + counts);
+            grid.nextGeneration();
+        }
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            throw new AssertionError(expectation);
+        }
+    }
+}